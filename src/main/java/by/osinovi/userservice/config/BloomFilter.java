@@ -0,0 +1,108 @@
+package by.osinovi.userservice.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            setBit(Math.floorMod(hash1 + i * hash2, bitCount));
+        }
+    }
+
+    /**
+     * Merges in bits laid out as by {@link #toBitmap()}. Bits are only ever added, so merging a
+     * copy read from Redis never loses values put locally in the meantime.
+     */
+    public void putBitmap(byte[] bitmap) {
+        int bytes = (int) Math.min(bitmap.length, (bitCount + 7) / 8);
+        for (int i = 0; i < bytes; i++) {
+            int value = bitmap[i] & 0xFF;
+            while (value != 0) {
+                int highest = Integer.numberOfLeadingZeros(value) - 24;
+                setBit(((long) i << 3) + highest);
+                value &= ~(0x80 >>> highest);
+            }
+        }
+    }
+
+    public long[] bitPositions(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1);
+        long[] positions = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            positions[i] = Math.floorMod(hash1 + i * hash2, bitCount);
+        }
+        return positions;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Bits in Redis bitmap order (offset 0 is the most significant bit of the first byte),
+     * sized for {@code bitCount + 1} offsets so callers can append a marker bit.
+     */
+    public byte[] toBitmap() {
+        byte[] bitmap = new byte[(int) (bitCount / 8 + 1)];
+        for (int word = 0; word < bits.length(); word++) {
+            long value = bits.get(word);
+            while (value != 0) {
+                long offset = ((long) word << 6) + Long.numberOfTrailingZeros(value);
+                bitmap[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+                value &= value - 1;
+            }
+        }
+        return bitmap;
+    }
+
+    public boolean mightContain(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
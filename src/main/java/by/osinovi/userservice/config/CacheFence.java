@@ -0,0 +1,130 @@
+package by.osinovi.userservice.config;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps read-path cache fills from overwriting newer data. Every write or eviction raises a
+ * per-key fence to the next value of a namespace-wide sequence; a fill carries the sequence value
+ * read before it went to the database and is dropped if the fence on its key has moved past it.
+ * Fence keys wrap the data key in a hash tag, so the check-and-set script stays in one slot.
+ */
+public class CacheFence {
+
+    public static final String FILL_SCRIPT = "local fence = redis.call('GET', KEYS[2]) "
+            + "if fence and tonumber(fence) > tonumber(ARGV[3]) then return 0 end "
+            + "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) "
+            + "return 1";
+
+    private static final byte[] FILL_SCRIPT_BYTES = FILL_SCRIPT.getBytes(StandardCharsets.UTF_8);
+
+    private final String sequenceKey;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Expiration fenceExpiration;
+
+    public CacheFence(String prefix, StringRedisTemplate stringRedisTemplate, Duration fenceTtl) {
+        this.sequenceKey = prefix + "fence";
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.fenceExpiration = Expiration.from(fenceTtl);
+    }
+
+    public static String fenceKey(String key) {
+        return "{" + key + "}::fence";
+    }
+
+    /**
+     * Runs the action now and, inside a transaction, once more after commit, so a reader that
+     * loaded the pre-commit row in between cannot leave its value behind.
+     */
+    public static void nowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    public long ticket() {
+        String current = stringRedisTemplate.opsForValue().get(sequenceKey);
+        return current != null ? Long.parseLong(current) : 0;
+    }
+
+    public void write(Map<String, byte[]> values, Duration ttl, Collection<String> deletedKeys) {
+        write(values, ttl, deletedKeys, connection -> {
+        });
+    }
+
+    /**
+     * Same as {@link #write(Map, Duration, Collection)}, with extra commands appended to the pipeline.
+     */
+    public void write(Map<String, byte[]> values, Duration ttl, Collection<String> deletedKeys,
+                      Consumer<RedisConnection> andThen) {
+        Long fence = stringRedisTemplate.opsForValue().increment(sequenceKey);
+        byte[] fenceValue = bytes(String.valueOf(fence));
+        Expiration expiration = Expiration.from(ttl);
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisStringCommands commands = connection.stringCommands();
+            values.forEach((key, value) -> {
+                commands.set(bytes(fenceKey(key)), fenceValue, fenceExpiration, RedisStringCommands.SetOption.upsert());
+                commands.set(bytes(key), value, expiration, RedisStringCommands.SetOption.upsert());
+            });
+            for (String key : deletedKeys) {
+                commands.set(bytes(fenceKey(key)), fenceValue, fenceExpiration, RedisStringCommands.SetOption.upsert());
+                connection.keyCommands().del(bytes(key));
+            }
+            andThen.accept(connection);
+            return null;
+        });
+    }
+
+    public boolean fill(String key, byte[] value, Duration ttl, long ticket) {
+        return !fill(Map.of(key, value), ttl, ticket).isEmpty();
+    }
+
+    public Set<String> fill(Map<String, byte[]> values, Duration ttl, long ticket) {
+        List<String> keys = List.copyOf(values.keySet());
+        byte[] ttlMillis = bytes(String.valueOf(ttl.toMillis()));
+        byte[] ticketValue = bytes(String.valueOf(ticket));
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                eval(connection, key, values.get(key), ttlMillis, ticketValue);
+            }
+            return null;
+        });
+        Set<String> accepted = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (Long.valueOf(1).equals(results.get(i))) {
+                accepted.add(keys.get(i));
+            }
+        }
+        return accepted;
+    }
+
+    private static void eval(RedisConnection connection, String key, byte[] value, byte[] ttlMillis, byte[] ticket) {
+        connection.scriptingCommands().eval(FILL_SCRIPT_BYTES, ReturnType.INTEGER, 2,
+                bytes(key), bytes(fenceKey(key)), value, ttlMillis, ticket);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
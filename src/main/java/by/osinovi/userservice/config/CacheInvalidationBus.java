@@ -0,0 +1,65 @@
+package by.osinovi.userservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus {
+
+    public static final String WILDCARD = "*";
+    public static final String CHANNEL = "cache-invalidation";
+    public static final String SEPARATOR = "|";
+    public static final String KEY_SEPARATOR = "\n";
+
+    private static final ChannelTopic TOPIC = new ChannelTopic(CHANNEL);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public void publish(String key) {
+        stringRedisTemplate.convertAndSend(TOPIC.getTopic(), nodeId + SEPARATOR + key);
+        log.debug("Published cache invalidation for key: {}", key);
+    }
+
+    /**
+     * Queues one message naming all the keys on a pipelined connection, so a batch write costs a
+     * single PUBLISH sent in the same round trip as the write itself.
+     */
+    public void publish(RedisConnection connection, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        String payload = nodeId + SEPARATOR + String.join(KEY_SEPARATOR, keys);
+        connection.publish(CHANNEL.getBytes(StandardCharsets.UTF_8), payload.getBytes(StandardCharsets.UTF_8));
+        log.debug("Published cache invalidation for {} keys", keys.size());
+    }
+
+    public void subscribe(String prefix, Consumer<String> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = payload.indexOf(SEPARATOR);
+            if (separator < 0 || nodeId.equals(payload.substring(0, separator))) {
+                return;
+            }
+            for (String key : payload.substring(separator + 1).split(KEY_SEPARATOR)) {
+                if (key.startsWith(prefix)) {
+                    listener.accept(key);
+                }
+            }
+        }, TOPIC);
+    }
+}
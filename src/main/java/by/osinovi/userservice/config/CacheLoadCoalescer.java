@@ -0,0 +1,8 @@
+package by.osinovi.userservice.config;
+
+import java.util.function.Supplier;
+
+public interface CacheLoadCoalescer {
+
+    <T> T load(String key, Supplier<T> cacheLookup, Supplier<T> loader);
+}
@@ -0,0 +1,84 @@
+package by.osinovi.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versions every key of a cache with a generation stored in Redis, so clearing the cache is one
+ * INCR instead of a key scan. Request threads only read the in-memory generation; it is loaded
+ * on first use, re-read when another node announces a clear, and re-read on a background tick
+ * in case that announcement was missed.
+ */
+@Slf4j
+public class CacheNamespace implements AutoCloseable {
+
+    private static final Duration RESYNC_INTERVAL = Duration.ofSeconds(5);
+    private static final ScheduledExecutorService RESYNC_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cache-namespace-resync").daemon().factory());
+
+    private final String prefix;
+    private final String generationKey;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduledFuture<?> resyncTask;
+
+    private volatile long generation = -1;
+
+    public CacheNamespace(String prefix, StringRedisTemplate stringRedisTemplate) {
+        this(prefix, stringRedisTemplate, RESYNC_INTERVAL);
+    }
+
+    public CacheNamespace(String prefix, StringRedisTemplate stringRedisTemplate, Duration resyncInterval) {
+        this.prefix = prefix;
+        this.generationKey = prefix + "generation";
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.resyncTask = RESYNC_SCHEDULER.scheduleWithFixedDelay(this::resyncInBackground,
+                resyncInterval.toMillis(), resyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String key(String suffix) {
+        return prefix + "v" + currentGeneration() + "::" + suffix;
+    }
+
+    public long bump() {
+        Long next = stringRedisTemplate.opsForValue().increment(generationKey);
+        generation = next != null ? next : 0;
+        log.debug("Bumped cache generation for {} to {}", prefix, generation);
+        return generation;
+    }
+
+    public void resync() {
+        String stored = stringRedisTemplate.opsForValue().get(generationKey);
+        generation = stored != null ? Long.parseLong(stored) : 0;
+    }
+
+    @Override
+    public void close() {
+        resyncTask.cancel(false);
+    }
+
+    private long currentGeneration() {
+        if (generation < 0) {
+            resync();
+        }
+        return generation;
+    }
+
+    private void resyncInBackground() {
+        try {
+            resync();
+        } catch (DataAccessException e) {
+            log.warn("Could not resync cache generation for {}: {}", prefix, e.getMessage());
+        }
+    }
+}
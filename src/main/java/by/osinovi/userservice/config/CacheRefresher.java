@@ -0,0 +1,90 @@
+package by.osinovi.userservice.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@Slf4j
+public class CacheRefresher {
+
+    private static final double SMOOTHING = 0.2;
+
+    private final boolean enabled;
+    private final double beta;
+    private final Semaphore permits;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final LongAdder refreshes = new LongAdder();
+
+    private volatile double recomputeMillis;
+
+    public CacheRefresher(PlatformTransactionManager transactionManager,
+                          @Value("${cache.refresh-ahead.enabled:true}") boolean enabled,
+                          @Value("${cache.refresh-ahead.beta:1.0}") double beta,
+                          @Value("${cache.refresh-ahead.initial-recompute-time:50ms}") Duration initialRecomputeTime,
+                          @Value("${cache.refresh-ahead.max-concurrent:16}") int maxConcurrent) {
+        this.enabled = enabled;
+        this.beta = beta;
+        this.recomputeMillis = initialRecomputeTime.toMillis();
+        this.permits = new Semaphore(maxConcurrent);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public boolean shouldRefresh(long remainingTtlMillis, Duration localTtl) {
+        if (!enabled || remainingTtlMillis < 0) {
+            return false;
+        }
+        double gap = -recomputeMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble(Double.MIN_VALUE, 1.0));
+        return remainingTtlMillis - localTtl.toMillis() <= gap;
+    }
+
+    public void refresh(String key, Runnable reload) {
+        if (!inFlight.add(key)) {
+            return;
+        }
+        if (!permits.tryAcquire()) {
+            inFlight.remove(key);
+            log.debug("Skipping early refresh of key: {}, too many refreshes running", key);
+            return;
+        }
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status -> reload.run());
+                refreshes.increment();
+                log.debug("Refreshed cache key ahead of expiry: {}", key);
+            } catch (RuntimeException e) {
+                log.warn("Early refresh of key {} failed: {}", key, e.getMessage());
+            } finally {
+                double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+                recomputeMillis = recomputeMillis + SMOOTHING * (elapsedMillis - recomputeMillis);
+                permits.release();
+                inFlight.remove(key);
+            }
+        });
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,99 @@
+package by.osinovi.userservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@Slf4j
+public class CacheWriteBehind implements MeterBinder {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final boolean enabled;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public CacheWriteBehind(@Value("${cache.write-behind.enabled:false}") boolean enabled,
+                            @Value("${cache.write-behind.queue-capacity:10000}") int queueCapacity,
+                            @Value("${cache.write-behind.workers:8}") int workers) {
+        this.enabled = enabled;
+        this.executor = enabled
+                ? new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        Thread.ofVirtual().name("cache-write-", 0).factory(),
+                        new ThreadPoolExecutor.AbortPolicy())
+                : null;
+    }
+
+    public void execute(String key, Runnable write) {
+        submitted.increment();
+        if (!enabled) {
+            run(key, write);
+            return;
+        }
+        try {
+            executor.execute(() -> run(key, write));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.debug("Dropped cache write for key: {}, queue is full", key);
+        }
+    }
+
+    public CacheWriteStats getStats() {
+        int queueDepth = enabled ? executor.getQueue().size() : 0;
+        return new CacheWriteStats(queueDepth, submitted.sum(), completed.sum(), dropped.sum(), failed.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.writebehind.queue.depth", this, writeBehind -> writeBehind.getStats().queueDepth())
+                .description("Cache writes waiting for a worker")
+                .register(registry);
+        FunctionCounter.builder("cache.writebehind.dropped", dropped, LongAdder::sum)
+                .description("Cache writes dropped because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("cache.writebehind.failed", failed, LongAdder::sum)
+                .description("Cache writes that failed")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (enabled) {
+            executor.shutdown();
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Discarding {} pending cache writes on shutdown", executor.shutdownNow().size());
+            }
+        }
+    }
+
+    private void run(String key, Runnable write) {
+        try {
+            write.run();
+            completed.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            if (!enabled) {
+                throw e;
+            }
+            log.warn("Cache write for key {} failed: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package by.osinovi.userservice.config;
+
+public record CacheWriteStats(int queueDepth, long submitted, long completed, long dropped, long failed) {
+}
@@ -0,0 +1,64 @@
+package by.osinovi.userservice.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A rendered HTTP response body: the exact JSON bytes, optionally gzipped, plus the entity
+ * tag they were rendered for.
+ */
+public record CachedBody(String etag, boolean gzipped, byte[] body) {
+
+    private static final byte GZIPPED = 1;
+
+    public static CachedBody of(byte[] json, String etag, int gzipMinSize) {
+        if (gzipMinSize < 0 || json.length < gzipMinSize) {
+            return new CachedBody(etag, false, json);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CachedBody(etag, true, out.toByteArray());
+    }
+
+    public byte[] identity() {
+        if (!gzipped) {
+            return body;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public byte[] encode() {
+        byte[] tag = etag != null ? etag.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return ByteBuffer.allocate(1 + Short.BYTES + tag.length + body.length)
+                .put(gzipped ? GZIPPED : 0)
+                .putShort((short) tag.length)
+                .put(tag)
+                .put(body)
+                .array();
+    }
+
+    public static CachedBody decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        boolean gzipped = (buffer.get() & GZIPPED) != 0;
+        byte[] tag = new byte[buffer.getShort()];
+        buffer.get(tag);
+        byte[] body = new byte[buffer.remaining()];
+        buffer.get(body);
+        return new CachedBody(tag.length > 0 ? new String(tag, StandardCharsets.UTF_8) : null, gzipped, body);
+    }
+}
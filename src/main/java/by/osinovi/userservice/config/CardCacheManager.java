@@ -1,52 +1,445 @@
 package by.osinovi.userservice.config;
 
 import by.osinovi.userservice.dto.card.CardResponseDto;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class CardCacheManager {
+public class CardCacheManager implements MeterBinder {
 
     private static final String CACHE_PREFIX = "cards::";
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    private static final String ID_SEPARATOR = ",";
 
     private final RedisTemplate<String, CardResponseDto> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheNamespace namespace;
+    private final CacheFence fence;
+    private final CacheRefresher refresher;
+    private final Duration localTtl;
+    private final Cache<String, CardResponseDto> localCache;
+    private final Cache<String, String> localUserCardIds;
+    private final Cache<String, String> localCardNumbers;
+    private final Cache<String, Boolean> localMissing;
+    private final Duration negativeTtl;
+    private final Duration replicaFillTtl;
+    private final ResponseBodyStore bodies;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    private volatile Consumer<String> refreshHandler = id -> {
+    };
+
+    public CardCacheManager(RedisTemplate<String, CardResponseDto> redisTemplate,
+                            StringRedisTemplate stringRedisTemplate,
+                            CacheInvalidationBus invalidationBus,
+                            CacheRefresher refresher,
+                            @Value("${cache.cards.local.maximum-size:10000}") long localMaximumSize,
+                            @Value("${cache.cards.local.ttl:30s}") Duration localTtl,
+                            @Value("${cache.cards.negative-ttl:30s}") Duration negativeTtl,
+                            @Value("${cache.replica-fill-ttl:10s}") Duration replicaFillTtl,
+                            @Value("${cache.response-body.local.maximum-weight:64MB}") DataSize bodyMaximumWeight) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationBus = invalidationBus;
+        this.namespace = new CacheNamespace(CACHE_PREFIX, stringRedisTemplate);
+        this.fence = new CacheFence(CACHE_PREFIX, stringRedisTemplate, DEFAULT_TTL);
+        this.refresher = refresher;
+        this.localTtl = localTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.localUserCardIds = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.localCardNumbers = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.negativeTtl = negativeTtl;
+        this.localMissing = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl.compareTo(negativeTtl) < 0 ? localTtl : negativeTtl)
+                .build();
+        this.replicaFillTtl = replicaFillTtl;
+        this.bodies = new ResponseBodyStore(stringRedisTemplate, fence, bodyMaximumWeight, localTtl, DEFAULT_TTL,
+                replicaFillTtl);
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidationBus.subscribe(CACHE_PREFIX, this::invalidateLocal);
+    }
+
+    @PreDestroy
+    void stopNamespaceResync() {
+        namespace.close();
+    }
+
+    public void onRefreshAhead(Consumer<String> handler) {
+        this.refreshHandler = handler;
+    }
+
+    public long fillTicket() {
+        return fence.ticket();
+    }
 
     public void cacheCard(String id, CardResponseDto card) {
         if (id != null && card != null) {
-            String key = CACHE_PREFIX + id;
-            redisTemplate.opsForValue().set(key, card, DEFAULT_TTL.getSeconds(), TimeUnit.SECONDS);
+            CacheFence.nowAndAfterCommit(() -> {
+                String key = cardKey(id);
+                fence.write(Map.of(key, serialize(card)), DEFAULT_TTL, List.of());
+                localCache.put(key, card);
+                invalidationBus.publish(key);
+            });
             log.debug("Cached card with id: {}", id);
         }
     }
 
+    public void fillCard(String id, CardResponseDto card, long ticket, boolean fromReplica) {
+        String key = cardKey(id);
+        if (fence.fill(key, serialize(card), fillTtl(DEFAULT_TTL, fromReplica), ticket) && !fromReplica) {
+            localCache.put(key, card);
+        }
+        log.debug("Filled card with id: {}", id);
+    }
+
+    public void cacheNewCards(List<CardResponseDto> cards) {
+        CacheFence.nowAndAfterCommit(() -> {
+            Map<String, CardResponseDto> entries = new HashMap<>();
+            Map<String, byte[]> values = new HashMap<>();
+            List<String> missingKeys = new ArrayList<>();
+            for (CardResponseDto card : cards) {
+                String key = cardKey(String.valueOf(card.getId()));
+                entries.put(key, card);
+                values.put(key, serialize(card));
+                missingKeys.add(missingKey(String.valueOf(card.getId())));
+            }
+            List<String> invalidated = new ArrayList<>(entries.keySet());
+            invalidated.addAll(missingKeys);
+            fence.write(values, DEFAULT_TTL, missingKeys, connection -> invalidationBus.publish(connection, invalidated));
+            localCache.putAll(entries);
+            localMissing.invalidateAll(missingKeys);
+        });
+        log.debug("Cached {} new cards in one pipeline", cards.size());
+    }
+
     public CardResponseDto getCard(String id) {
-        String key = CACHE_PREFIX + id;
-        CardResponseDto cached = redisTemplate.opsForValue().get(key);
+        String key = cardKey(id);
+        CardResponseDto cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            localHits.increment();
+        } else {
+            localMisses.increment();
+            cached = getWithEarlyRefresh(id, key);
+        }
         log.debug("Cache hit for card id: {}, result: {}", id, cached != null);
         return cached;
+    }
 
+    public Map<String, CardResponseDto> getCards(Collection<String> ids) {
+        Map<String, CardResponseDto> found = new HashMap<>();
+        List<String> remoteIds = new ArrayList<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String id : ids) {
+            String key = cardKey(id);
+            CardResponseDto local = localCache.getIfPresent(key);
+            if (local != null) {
+                localHits.increment();
+                found.put(id, local);
+            } else {
+                localMisses.increment();
+                remoteIds.add(id);
+                remoteKeys.add(key);
+            }
+        }
+        if (!remoteKeys.isEmpty()) {
+            List<CardResponseDto> cached = redisTemplate.opsForValue().multiGet(remoteKeys);
+            for (int i = 0; i < remoteKeys.size(); i++) {
+                CardResponseDto card = cached != null ? cached.get(i) : null;
+                recordRemote(remoteKeys.get(i), card);
+                if (card != null) {
+                    found.put(remoteIds.get(i), card);
+                }
+            }
+        }
+        return found;
+    }
+
+    public Optional<List<CardResponseDto>> getCardsByUserId(String userId) {
+        String listKey = userCardsKey(userId);
+        String ids = localUserCardIds.getIfPresent(listKey);
+        if (ids == null) {
+            ids = stringRedisTemplate.opsForValue().get(listKey);
+            if (ids == null) {
+                log.debug("Cache miss for card list of user id: {}", userId);
+                return Optional.empty();
+            }
+            localUserCardIds.put(listKey, ids);
+        }
+        if (ids.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        List<String> cardIds = List.of(ids.split(ID_SEPARATOR));
+        Map<String, CardResponseDto> cards = getCards(cardIds);
+        if (cards.size() != cardIds.size()) {
+            log.debug("Card list of user id: {} references evicted cards", userId);
+            return Optional.empty();
+        }
+        log.debug("Cache hit for card list of user id: {}", userId);
+        return Optional.of(cardIds.stream().map(cards::get).toList());
+    }
+
+    public void fillCardsByUserId(String userId, List<CardResponseDto> cards, long ticket, boolean fromReplica) {
+        Map<String, CardResponseDto> entries = new HashMap<>();
+        Map<String, byte[]> values = new HashMap<>();
+        for (CardResponseDto card : cards) {
+            String key = cardKey(String.valueOf(card.getId()));
+            entries.put(key, card);
+            values.put(key, serialize(card));
+        }
+        String listKey = userCardsKey(userId);
+        String ids = cards.stream().map(card -> String.valueOf(card.getId())).collect(Collectors.joining(ID_SEPARATOR));
+        values.put(listKey, RedisSerializer.string().serialize(ids));
+        Set<String> accepted = fence.fill(values, fillTtl(DEFAULT_TTL, fromReplica), ticket);
+        if (fromReplica) {
+            log.debug("Filled {} cards read from a replica for user id: {}, accepted: {}", cards.size(), userId,
+                    accepted.size());
+            return;
+        }
+        entries.forEach((key, card) -> {
+            if (accepted.contains(key)) {
+                localCache.put(key, card);
+            }
+        });
+        if (accepted.contains(listKey)) {
+            localUserCardIds.put(listKey, ids);
+        }
+        log.debug("Filled {} cards for user id: {}, accepted: {}", cards.size(), userId, accepted.size());
     }
 
     public void evictCard(String id) {
         if (id != null) {
-            redisTemplate.delete(CACHE_PREFIX + id);
+            evict(List.of(cardKey(id)));
             log.debug("Evicted card cache for id: {}", id);
         }
     }
 
+    public CachedBody getCardsBodyByUserId(String userId) {
+        return bodies.get(userCardsBodyKey(userId));
+    }
+
+    public void fillCardsBodyByUserId(String userId, CachedBody body, long ticket, boolean fromReplica) {
+        bodies.fill(userCardsBodyKey(userId), body, ticket, fromReplica);
+    }
+
+    public void evictCardsByUserId(String userId) {
+        if (userId != null) {
+            evict(List.of(userCardsKey(userId), userCardsBodyKey(userId)));
+            log.debug("Evicted card list cache for user id: {}", userId);
+        }
+    }
+
+    public void evictCardsOfUser(String userId, Map<String, String> numbersById) {
+        List<String> keys = new ArrayList<>(List.of(userCardsKey(userId), userCardsBodyKey(userId)));
+        numbersById.forEach((id, number) -> {
+            keys.add(cardKey(id));
+            keys.add(numberKey(number));
+        });
+        evict(keys);
+        log.debug("Evicted {} cached cards of user id: {}", numbersById.size(), userId);
+    }
+
+    public String getCardIdByNumber(String number) {
+        String key = numberKey(number);
+        String id = localCardNumbers.getIfPresent(key);
+        if (id == null) {
+            id = stringRedisTemplate.opsForValue().get(key);
+            if (id != null) {
+                localCardNumbers.put(key, id);
+            }
+        }
+        log.debug("Cache hit for card number pointer: {}", id != null);
+        return id;
+    }
+
+    public void fillCardNumber(String number, String id, long ticket, boolean fromReplica) {
+        String key = numberKey(number);
+        if (fence.fill(key, RedisSerializer.string().serialize(id), fillTtl(DEFAULT_TTL, fromReplica), ticket)
+                && !fromReplica) {
+            localCardNumbers.put(key, id);
+        }
+    }
+
+    public void evictCardNumber(String number) {
+        if (number != null) {
+            evict(List.of(numberKey(number)));
+        }
+    }
+
+    public boolean isCardMissing(String id) {
+        String key = missingKey(id);
+        if (localMissing.getIfPresent(key) != null) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+            localMissing.put(key, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    public void markCardMissing(String id, long ticket, boolean fromReplica) {
+        String key = missingKey(id);
+        if (fence.fill(key, RedisSerializer.string().serialize("1"), fillTtl(negativeTtl, fromReplica), ticket)
+                && !fromReplica) {
+            localMissing.put(key, Boolean.TRUE);
+            log.debug("Cached negative entry for card id: {}", id);
+        }
+    }
+
+    public void clearMissing(String id) {
+        clearMissing(List.of(id));
+    }
+
+    public void clearMissing(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            evict(ids.stream().map(this::missingKey).toList());
+        }
+    }
+
     public void clearAll() {
-        var keys = redisTemplate.keys(CACHE_PREFIX + "*");
-        if (!keys.isEmpty()) {
-            redisTemplate.delete(keys);
-            log.debug("Cleared all card cache entries");
+        long generation = namespace.bump();
+        localCache.invalidateAll();
+        localUserCardIds.invalidateAll();
+        localCardNumbers.invalidateAll();
+        localMissing.invalidateAll();
+        bodies.invalidateAllLocal();
+        invalidationBus.publish(CACHE_PREFIX + CacheInvalidationBus.WILDCARD);
+        log.debug("Cleared all card cache entries, now at generation {}", generation);
+    }
+
+    public TieredCacheStats getStats() {
+        return new TieredCacheStats(localHits.sum(), localMisses.sum(), remoteHits.sum(), remoteMisses.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TieredCacheStats.bindTo(registry, "cards", this::getStats);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CardResponseDto getWithEarlyRefresh(String id, String key) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, CardResponseDto> ops = (RedisOperations<String, CardResponseDto>) operations;
+                ops.opsForValue().get(key);
+                ops.getExpire(key, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+        CardResponseDto cached = (CardResponseDto) results.get(0);
+        recordRemote(key, cached);
+        if (cached != null && results.get(1) instanceof Long remainingTtl
+                && refresher.shouldRefresh(remainingTtl, localTtl)) {
+            refresher.refresh(key, () -> refreshHandler.accept(id));
+        }
+        return cached;
+    }
+
+    private void recordRemote(String key, CardResponseDto cached) {
+        if (cached != null) {
+            remoteHits.increment();
+            localCache.put(key, cached);
+        } else {
+            remoteMisses.increment();
+        }
+    }
+
+    private void evict(List<String> keys) {
+        CacheFence.nowAndAfterCommit(() -> {
+            fence.write(Map.of(), DEFAULT_TTL, keys, connection -> invalidationBus.publish(connection, keys));
+            keys.forEach(this::invalidateLocal);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(CardResponseDto card) {
+        return ((RedisSerializer<CardResponseDto>) redisTemplate.getValueSerializer()).serialize(card);
+    }
+
+    private String cardKey(String id) {
+        return namespace.key(id);
+    }
+
+    private Duration fillTtl(Duration ttl, boolean fromReplica) {
+        return fromReplica && replicaFillTtl.compareTo(ttl) < 0 ? replicaFillTtl : ttl;
+    }
+
+    private String missingKey(String id) {
+        return namespace.key("missing:" + id);
+    }
+
+    private String numberKey(String number) {
+        return namespace.key("number:" + number);
+    }
+
+    private String userCardsKey(String userId) {
+        return namespace.key("user:" + userId);
+    }
+
+    private String userCardsBodyKey(String userId) {
+        return namespace.key("body:user:" + userId);
+    }
+
+    private void invalidateLocal(String key) {
+        if (key.endsWith(CacheInvalidationBus.WILDCARD)) {
+            namespace.resync();
+            localCache.invalidateAll();
+            localUserCardIds.invalidateAll();
+            localCardNumbers.invalidateAll();
+            localMissing.invalidateAll();
+            bodies.invalidateAllLocal();
+        } else {
+            localCache.invalidate(key);
+            localUserCardIds.invalidate(key);
+            localCardNumbers.invalidate(key);
+            localMissing.invalidate(key);
+            bodies.invalidateLocal(key);
         }
     }
-}
\ No newline at end of file
+}
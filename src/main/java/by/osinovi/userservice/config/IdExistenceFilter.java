@@ -0,0 +1,230 @@
+package by.osinovi.userservice.config;
+
+import by.osinovi.userservice.repository.CardRepository;
+import by.osinovi.userservice.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over issued user and card ids. Lookups only read a local copy; the Redis bitmap
+ * is what a starting node builds or loads it from, ids added on other nodes arrive over the
+ * invalidation channel, and a periodic reload picks up any message that was missed. The bit
+ * just past the filter marks a bitmap as built; until a node has loaded a built one (or after
+ * Redis drops the key) lookups fall through to the cache and database.
+ */
+@Component
+@Slf4j
+public class IdExistenceFilter {
+
+    private static final String KEY_PREFIX = "bloom::";
+    private static final String USERS_KEY_PREFIX = KEY_PREFIX + "users::";
+    private static final String CARDS_KEY_PREFIX = KEY_PREFIX + "cards::";
+    private static final String ID_SEPARATOR = "::";
+
+    private final UserRepository userRepository;
+    private final CardRepository cardRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final boolean enabled;
+    private final Duration resyncInterval;
+    private final LocalFilter users;
+    private final LocalFilter cards;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("id-filter-resync").daemon().factory());
+
+    public IdExistenceFilter(UserRepository userRepository,
+                             CardRepository cardRepository,
+                             StringRedisTemplate stringRedisTemplate,
+                             CacheInvalidationBus invalidationBus,
+                             @Value("${cache.bloom-filter.enabled:false}") boolean enabled,
+                             @Value("${cache.bloom-filter.expected-insertions:1000000}") long expectedInsertions,
+                             @Value("${cache.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${cache.bloom-filter.resync-interval:1m}") Duration resyncInterval) {
+        this.userRepository = userRepository;
+        this.cardRepository = cardRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationBus = invalidationBus;
+        this.enabled = enabled;
+        this.resyncInterval = resyncInterval;
+        this.users = enabled ? new LocalFilter(USERS_KEY_PREFIX, "users", expectedInsertions, falsePositiveRate) : null;
+        this.cards = enabled ? new LocalFilter(CARDS_KEY_PREFIX, "cards", expectedInsertions, falsePositiveRate) : null;
+    }
+
+    @PostConstruct
+    void subscribeToAdditions() {
+        if (enabled) {
+            invalidationBus.subscribe(KEY_PREFIX, this::applyRemoteAddition);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        buildIfMissing(users, userRepository::streamAllIds);
+        buildIfMissing(cards, cardRepository::streamAllIds);
+        resync();
+        scheduler.scheduleWithFixedDelay(this::resyncInBackground,
+                resyncInterval.toMillis(), resyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void resync() {
+        if (enabled) {
+            load(users);
+            load(cards);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isDefinitelyAbsentUser(Long id) {
+        return enabled && users.isDefinitelyAbsent(id);
+    }
+
+    public boolean isDefinitelyAbsentCard(Long id) {
+        return enabled && cards.isDefinitelyAbsent(id);
+    }
+
+    public void addUser(Long id) {
+        if (id != null) {
+            addUsers(List.of(id));
+        }
+    }
+
+    public void addUsers(Collection<Long> ids) {
+        add(users, ids);
+    }
+
+    public void addCard(Long id) {
+        if (id != null) {
+            addCards(List.of(id));
+        }
+    }
+
+    public void addCards(Collection<Long> ids) {
+        add(cards, ids);
+    }
+
+    private void buildIfMissing(LocalFilter filter, Supplier<Stream<Long>> ids) {
+        if (Boolean.TRUE.equals(stringRedisTemplate.execute((RedisCallback<Boolean>) connection ->
+                connection.stringCommands().getBit(filter.key, filter.bloom.bitCount())))) {
+            log.info("Id existence filter for {} is already built", filter.name);
+            return;
+        }
+        BloomFilter built = new BloomFilter(filter.expectedInsertions, filter.falsePositiveRate);
+        long count;
+        try (Stream<Long> stream = ids.get()) {
+            count = stream.mapToLong(id -> {
+                built.put(id);
+                return 1;
+            }).sum();
+        }
+        byte[] bitmap = built.toBitmap();
+        bitmap[bitmap.length - 1] |= (byte) (0x80 >>> (built.bitCount() & 7));
+        byte[] buildKey = (filter.keyName + "::build").getBytes(StandardCharsets.UTF_8);
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.stringCommands().set(buildKey, bitmap);
+            connection.stringCommands().bitOp(RedisStringCommands.BitOperation.OR, filter.key, filter.key, buildKey);
+            connection.keyCommands().del(buildKey);
+            return null;
+        });
+        log.info("Built id existence filter for {} from {} ids", filter.name, count);
+    }
+
+    private void load(LocalFilter filter) {
+        byte[] bitmap = stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(filter.key));
+        long marker = filter.bloom.bitCount();
+        boolean built = bitmap != null && bitmap.length > marker >>> 3
+                && (bitmap[(int) (marker >>> 3)] & (0x80 >>> (marker & 7))) != 0;
+        if (built) {
+            filter.bloom.putBitmap(bitmap);
+        } else if (filter.built) {
+            log.warn("Id existence filter for {} is missing in Redis, falling through until it is rebuilt", filter.name);
+        }
+        filter.built = built;
+    }
+
+    private void resyncInBackground() {
+        try {
+            resync();
+        } catch (DataAccessException e) {
+            log.warn("Could not reload id existence filters: {}", e.getMessage());
+        }
+    }
+
+    private void add(LocalFilter filter, Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(filter.bloom::put);
+        List<String> additions = ids.stream().map(id -> filter.keyName + ID_SEPARATOR + id).toList();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long id : ids) {
+                for (long position : filter.bloom.bitPositions(id)) {
+                    connection.stringCommands().setBit(filter.key, position, true);
+                }
+            }
+            invalidationBus.publish(connection, additions);
+            return null;
+        });
+    }
+
+    private void applyRemoteAddition(String message) {
+        int separator = message.lastIndexOf(ID_SEPARATOR);
+        String keyName = message.substring(0, separator);
+        LocalFilter filter = keyName.equals(users.keyName) ? users : keyName.equals(cards.keyName) ? cards : null;
+        if (filter != null) {
+            filter.bloom.put(Long.parseLong(message.substring(separator + ID_SEPARATOR.length())));
+        }
+    }
+
+    private static final class LocalFilter {
+
+        private final String name;
+        private final long expectedInsertions;
+        private final double falsePositiveRate;
+        private final BloomFilter bloom;
+        private final String keyName;
+        private final byte[] key;
+        private volatile boolean built;
+
+        private LocalFilter(String prefix, String name, long expectedInsertions, double falsePositiveRate) {
+            this.name = name;
+            this.expectedInsertions = expectedInsertions;
+            this.falsePositiveRate = falsePositiveRate;
+            this.bloom = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.keyName = prefix + bloom.bitCount() + "x" + bloom.hashCount();
+            this.key = keyName.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private boolean isDefinitelyAbsent(Long id) {
+            return built && !bloom.mightContain(id);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package by.osinovi.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(name = "cache.single-flight.mode", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalCacheLoadCoalescer implements CacheLoadCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Duration joinTimeout;
+
+    public LocalCacheLoadCoalescer(@Value("${cache.single-flight.join-timeout:5s}") Duration joinTimeout) {
+        this.joinTimeout = joinTimeout;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> cacheLookup, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            log.debug("Joining in-flight load for key: {}", key);
+            return (T) await(key, existing, loader);
+        }
+        try {
+            T value = cacheLookup.get();
+            if (value == null) {
+                value = loader.get();
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private <T> Object await(String key, CompletableFuture<Object> future, Supplier<T> loader) {
+        try {
+            return future.get(joinTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.debug("Timed out joining in-flight load for key: {}, loading directly", key);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        }
+    }
+}
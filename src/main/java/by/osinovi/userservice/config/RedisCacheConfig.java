@@ -1,45 +1,64 @@
 package by.osinovi.userservice.config;
 
+import by.osinovi.userservice.config.codec.CardResponseDtoBinarySerializer;
+import by.osinovi.userservice.config.codec.UserResponseDtoBinarySerializer;
 import by.osinovi.userservice.dto.card.CardResponseDto;
 import by.osinovi.userservice.dto.user.UserResponseDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisCacheConfig {
 
+    private static final String BINARY_CODEC = "binary";
+
     @Bean
-    public RedisTemplate<String, UserResponseDto> userRedisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, UserResponseDto> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
+    public RedisTemplate<String, UserResponseDto> userRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                    @Value("${cache.users.codec:json}") String codec) {
+        return template(connectionFactory, userSerializer(codec));
+    }
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        Jackson2JsonRedisSerializer<UserResponseDto> serializer = new Jackson2JsonRedisSerializer<>(mapper,UserResponseDto.class);
+    @Bean
+    public RedisTemplate<String, CardResponseDto> cardRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                    @Value("${cache.cards.codec:json}") String codec) {
+        return template(connectionFactory, cardSerializer(codec));
+    }
 
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(serializer);
-        template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(serializer);
-        template.afterPropertiesSet();
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 
-        return template;
+    public static RedisSerializer<UserResponseDto> userSerializer(String codec) {
+        RedisSerializer<UserResponseDto> json = jsonSerializer(UserResponseDto.class);
+        return BINARY_CODEC.equals(codec) ? new UserResponseDtoBinarySerializer(json) : json;
     }
 
-    @Bean
-    public RedisTemplate<String, CardResponseDto> cardRedisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, CardResponseDto> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
+    public static RedisSerializer<CardResponseDto> cardSerializer(String codec) {
+        RedisSerializer<CardResponseDto> json = jsonSerializer(CardResponseDto.class);
+        return BINARY_CODEC.equals(codec) ? new CardResponseDtoBinarySerializer(json) : json;
+    }
 
+    private static <T> RedisSerializer<T> jsonSerializer(Class<T> type) {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
-        Jackson2JsonRedisSerializer<CardResponseDto> serializer = new Jackson2JsonRedisSerializer<>(mapper,CardResponseDto.class);
+        return new Jackson2JsonRedisSerializer<>(mapper, type);
+    }
+
+    private static <T> RedisTemplate<String, T> template(RedisConnectionFactory connectionFactory, RedisSerializer<T> serializer) {
+        RedisTemplate<String, T> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
 
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(serializer);
@@ -50,4 +69,4 @@ public class RedisCacheConfig {
         return template;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package by.osinovi.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(name = "cache.single-flight.mode", havingValue = "redis")
+@Slf4j
+public class RedisLockCacheLoadCoalescer implements CacheLoadCoalescer {
+
+    private static final String LOCK_PREFIX = "locks::";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final LocalCacheLoadCoalescer localCoalescer;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration lockTtl;
+    private final Duration waitTimeout;
+
+    public RedisLockCacheLoadCoalescer(StringRedisTemplate stringRedisTemplate,
+                                       @Value("${cache.single-flight.lock-ttl:5s}") Duration lockTtl,
+                                       @Value("${cache.single-flight.wait-timeout:2s}") Duration waitTimeout) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.lockTtl = lockTtl;
+        this.waitTimeout = waitTimeout;
+        this.localCoalescer = new LocalCacheLoadCoalescer(waitTimeout.plus(lockTtl));
+    }
+
+    @Override
+    public <T> T load(String key, Supplier<T> cacheLookup, Supplier<T> loader) {
+        return localCoalescer.load(key, cacheLookup, () -> loadWithLock(key, cacheLookup, loader));
+    }
+
+    private <T> T loadWithLock(String key, Supplier<T> cacheLookup, Supplier<T> loader) {
+        String lockKey = LOCK_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl))) {
+                try {
+                    T cached = cacheLookup.get();
+                    return cached != null ? cached : loader.get();
+                } finally {
+                    stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+                }
+            }
+            if (!pause()) {
+                return loader.get();
+            }
+            T cached = cacheLookup.get();
+            if (cached != null) {
+                return cached;
+            }
+            if (System.nanoTime() > deadline) {
+                log.debug("Timed out waiting for lock on key: {}, loading directly", key);
+                return loader.get();
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(POLL_INTERVAL);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package by.osinovi.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Slf4j
+public class ResponseBodyStore {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheFence fence;
+    private final Cache<String, CachedBody> localCache;
+    private final Duration ttl;
+    private final Duration replicaTtl;
+
+    public ResponseBodyStore(StringRedisTemplate stringRedisTemplate, CacheFence fence, DataSize localMaximumWeight,
+                             Duration localTtl, Duration ttl, Duration replicaTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.fence = fence;
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaximumWeight.toBytes())
+                .weigher((String key, CachedBody body) -> body.body().length)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.ttl = ttl;
+        this.replicaTtl = replicaTtl.compareTo(ttl) < 0 ? replicaTtl : ttl;
+    }
+
+    public CachedBody get(String key) {
+        CachedBody cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] raw = stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(RedisSerializer.string().serialize(key)));
+        if (raw == null) {
+            return null;
+        }
+        cached = CachedBody.decode(raw);
+        localCache.put(key, cached);
+        return cached;
+    }
+
+    public void fill(String key, CachedBody body, long ticket, boolean fromReplica) {
+        if (!fence.fill(key, body.encode(), fromReplica ? replicaTtl : ttl, ticket)) {
+            log.debug("Skipped response body rendered before a newer write: {}", key);
+            return;
+        }
+        if (!fromReplica) {
+            localCache.put(key, body);
+        }
+        log.debug("Cached {} byte response body: {}", body.body().length, key);
+    }
+
+    public void invalidateLocal(String key) {
+        localCache.invalidate(key);
+    }
+
+    public void invalidateAllLocal() {
+        localCache.invalidateAll();
+    }
+}
@@ -0,0 +1,52 @@
+package by.osinovi.userservice.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts Hibernate second-level cache data for writes that bypass the persistence context
+ * (native inserts, JDBC batches). A no-op unless the l2cache profile enables the cache.
+ * <p>
+ * The regions live in each node's heap and nothing propagates evictions between nodes, so the
+ * l2cache profile is only safe for single-node deployments: with several nodes, a write on one
+ * leaves the others serving the old entity until the region expires.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCacheEvictor {
+
+    private static final String USER_CARDS_ROLE = "by.osinovi.userservice.entity.User.cards";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warnIfEnabled() {
+        if (sessionFactory().getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            log.warn("Hibernate second-level cache is enabled; it is node-local and must only be used "
+                    + "with a single application node");
+        }
+    }
+
+    public void evictUserCards(Long userId) {
+        cache().evictCollectionData(USER_CARDS_ROLE, userId);
+    }
+
+    public void evictQueryResults() {
+        cache().evictQueryRegions();
+    }
+
+    private Cache cache() {
+        return sessionFactory().getCache();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,27 @@
+package by.osinovi.userservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+public record TieredCacheStats(long localHits, long localMisses, long remoteHits, long remoteMisses) {
+
+    private static final String GETS = "cache.tiered.gets";
+
+    static void bindTo(MeterRegistry registry, String cache, Supplier<TieredCacheStats> stats) {
+        register(registry, cache, "local", "hit", stats, TieredCacheStats::localHits);
+        register(registry, cache, "local", "miss", stats, TieredCacheStats::localMisses);
+        register(registry, cache, "remote", "hit", stats, TieredCacheStats::remoteHits);
+        register(registry, cache, "remote", "miss", stats, TieredCacheStats::remoteMisses);
+    }
+
+    private static void register(MeterRegistry registry, String cache, String tier, String result,
+                                 Supplier<TieredCacheStats> stats, ToDoubleFunction<TieredCacheStats> count) {
+        FunctionCounter.builder(GETS, stats, supplier -> count.applyAsDouble(supplier.get()))
+                .description("Cache lookups by tier and result")
+                .tags("cache", cache, "tier", tier, "result", result)
+                .register(registry);
+    }
+}
@@ -1,65 +1,438 @@
 package by.osinovi.userservice.config;
 
 import by.osinovi.userservice.dto.user.UserResponseDto;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class UserCacheManager {
+public class UserCacheManager implements MeterBinder {
 
     private static final String CACHE_PREFIX = "users::";
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
 
     private final RedisTemplate<String, UserResponseDto> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheNamespace namespace;
+    private final CacheFence fence;
+    private final CacheRefresher refresher;
+    private final Duration localTtl;
+    private final Cache<String, UserResponseDto> localCache;
+    private final Cache<String, String> localEmailIndex;
+    private final Cache<String, Boolean> localMissing;
+    private final Duration negativeTtl;
+    private final Duration replicaFillTtl;
+    private final ResponseBodyStore bodies;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    private volatile Consumer<String> refreshHandler = id -> {
+    };
+
+    public UserCacheManager(RedisTemplate<String, UserResponseDto> redisTemplate,
+                            StringRedisTemplate stringRedisTemplate,
+                            CacheInvalidationBus invalidationBus,
+                            CacheRefresher refresher,
+                            @Value("${cache.users.local.maximum-size:10000}") long localMaximumSize,
+                            @Value("${cache.users.local.ttl:30s}") Duration localTtl,
+                            @Value("${cache.users.negative-ttl:30s}") Duration negativeTtl,
+                            @Value("${cache.replica-fill-ttl:10s}") Duration replicaFillTtl,
+                            @Value("${cache.response-body.local.maximum-weight:64MB}") DataSize bodyMaximumWeight) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationBus = invalidationBus;
+        this.namespace = new CacheNamespace(CACHE_PREFIX, stringRedisTemplate);
+        this.fence = new CacheFence(CACHE_PREFIX, stringRedisTemplate, DEFAULT_TTL);
+        this.refresher = refresher;
+        this.localTtl = localTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.localEmailIndex = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.negativeTtl = negativeTtl;
+        this.localMissing = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl.compareTo(negativeTtl) < 0 ? localTtl : negativeTtl)
+                .build();
+        this.replicaFillTtl = replicaFillTtl;
+        this.bodies = new ResponseBodyStore(stringRedisTemplate, fence, bodyMaximumWeight, localTtl, DEFAULT_TTL,
+                replicaFillTtl);
+    }
+
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidationBus.subscribe(CACHE_PREFIX, this::invalidateLocal);
+    }
+
+    @PreDestroy
+    void stopNamespaceResync() {
+        namespace.close();
+    }
+
+    public void onRefreshAhead(Consumer<String> handler) {
+        this.refreshHandler = handler;
+    }
+
+    public long fillTicket() {
+        return fence.ticket();
+    }
 
     public void cacheUser(String id, String email, UserResponseDto user) {
         if (id != null && user != null) {
-            String idKey = CACHE_PREFIX + "id:" + id;
-            String emailKey = CACHE_PREFIX + "email:" + email;
-            redisTemplate.opsForValue().set(idKey, user, DEFAULT_TTL.getSeconds(), TimeUnit.SECONDS);
-            redisTemplate.opsForValue().set(emailKey, user, DEFAULT_TTL.getSeconds(), TimeUnit.SECONDS);
+            CacheFence.nowAndAfterCommit(() -> {
+                String idKey = idKey(id);
+                String emailKey = email != null ? emailKey(email) : null;
+                fence.write(userEntries(idKey, emailKey, id, user), DEFAULT_TTL, List.of());
+                localCache.put(idKey, user);
+                invalidationBus.publish(idKey);
+                if (emailKey != null) {
+                    localEmailIndex.put(emailKey, id);
+                    invalidationBus.publish(emailKey);
+                }
+            });
             log.debug("Cached user with id: {}, email: {}", id, email);
         }
     }
 
+    public void fillUser(String id, String email, UserResponseDto user, long ticket, boolean fromReplica) {
+        String idKey = idKey(id);
+        String emailKey = email != null ? emailKey(email) : null;
+        Set<String> accepted = fence.fill(userEntries(idKey, emailKey, id, user), fillTtl(DEFAULT_TTL, fromReplica),
+                ticket);
+        if (!fromReplica && accepted.contains(idKey)) {
+            localCache.put(idKey, user);
+        }
+        if (!fromReplica && emailKey != null && accepted.contains(emailKey)) {
+            localEmailIndex.put(emailKey, id);
+        }
+        log.debug("Filled user with id: {}, email: {}, accepted: {}", id, email, accepted.size());
+    }
+
     public UserResponseDto getUserById(String id) {
-        String key = CACHE_PREFIX + "id:" + id;
-        UserResponseDto cached = redisTemplate.opsForValue().get(key);
+        String key = idKey(id);
+        UserResponseDto cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            localHits.increment();
+        } else {
+            localMisses.increment();
+            cached = getWithEarlyRefresh(id, key);
+        }
         log.debug("Cache hit for user id: {}, result: {}", id, cached != null);
         return cached;
     }
 
     public UserResponseDto getUserByEmail(String email) {
-        String key = CACHE_PREFIX + "email:" + email;
-        UserResponseDto cached = redisTemplate.opsForValue().get(key);
-            log.debug("Cache hit for user email: {}, result: {}", email, cached != null);
-            return cached;
+        String emailKey = emailKey(email);
+        String id = localEmailIndex.getIfPresent(emailKey);
+        UserResponseDto cached = id != null ? localCache.getIfPresent(idKey(id)) : null;
+        if (cached != null) {
+            localHits.increment();
+        } else {
+            localMisses.increment();
+            cached = lookupByEmail(emailKey, id);
+            if (cached != null) {
+                String cachedId = String.valueOf(cached.getId());
+                localEmailIndex.put(emailKey, cachedId);
+                recordRemote(idKey(cachedId), cached);
+            } else {
+                remoteMisses.increment();
+            }
+        }
+        log.debug("Cache hit for user email: {}, result: {}", email, cached != null);
+        return cached;
+    }
+
+    public Map<String, UserResponseDto> getUsersByIds(Collection<String> ids) {
+        Map<String, UserResponseDto> found = new HashMap<>();
+        List<String> remoteIds = new ArrayList<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String id : ids) {
+            String key = idKey(id);
+            UserResponseDto local = localCache.getIfPresent(key);
+            if (local != null) {
+                localHits.increment();
+                found.put(id, local);
+            } else {
+                localMisses.increment();
+                remoteIds.add(id);
+                remoteKeys.add(key);
+            }
+        }
+        if (!remoteKeys.isEmpty()) {
+            List<UserResponseDto> cached = redisTemplate.opsForValue().multiGet(remoteKeys);
+            for (int i = 0; i < remoteKeys.size(); i++) {
+                UserResponseDto user = cached != null ? cached.get(i) : null;
+                recordRemote(remoteKeys.get(i), user);
+                if (user != null) {
+                    found.put(remoteIds.get(i), user);
+                }
+            }
+        }
+        log.debug("Cache multi-get for {} user ids, hits: {}", ids.size(), found.size());
+        return found;
+    }
+
+    public void fillUsers(Collection<UserResponseDto> users, long ticket, boolean fromReplica) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<String, UserResponseDto> entries = new HashMap<>();
+        Map<String, String> emailPointers = new HashMap<>();
+        Map<String, byte[]> values = new HashMap<>();
+        for (UserResponseDto user : users) {
+            String id = String.valueOf(user.getId());
+            String idKey = idKey(id);
+            entries.put(idKey, user);
+            values.put(idKey, serialize(user));
+            if (user.getEmail() != null) {
+                String emailKey = emailKey(user.getEmail());
+                emailPointers.put(emailKey, id);
+                values.put(emailKey, RedisSerializer.string().serialize(id));
+            }
+        }
+        Set<String> accepted = fence.fill(values, fillTtl(DEFAULT_TTL, fromReplica), ticket);
+        if (fromReplica) {
+            log.debug("Filled {} of {} user entries read from a replica", accepted.size(), values.size());
+            return;
+        }
+        entries.forEach((key, user) -> {
+            if (accepted.contains(key)) {
+                localCache.put(key, user);
+            }
+        });
+        emailPointers.forEach((key, id) -> {
+            if (accepted.contains(key)) {
+                localEmailIndex.put(key, id);
+            }
+        });
+        log.debug("Filled {} of {} user entries in one pipeline", accepted.size(), values.size());
+    }
+
+    public CachedBody getUserBody(String id) {
+        return bodies.get(bodyKey(id));
+    }
+
+    public void fillUserBody(String id, CachedBody body, long ticket, boolean fromReplica) {
+        bodies.fill(bodyKey(id), body, ticket, fromReplica);
+    }
+
+    public void evictUserBody(String id) {
+        CacheFence.nowAndAfterCommit(() -> {
+            String key = bodyKey(id);
+            fence.write(Map.of(), DEFAULT_TTL, List.of(key));
+            bodies.invalidateLocal(key);
+            invalidationBus.publish(key);
+        });
     }
 
     public void evictUser(String id, String email) {
-        if (id != null) {
-            redisTemplate.delete(CACHE_PREFIX + "id:" + id);
-            log.debug("Evicted user cache for id: {}", id);
+        if (id == null && email == null) {
+            return;
         }
-        if (email != null) {
-            redisTemplate.delete(CACHE_PREFIX + "email:" + email);
-            log.debug("Evicted user cache for email: {}", email);
+        CacheFence.nowAndAfterCommit(() -> {
+            List<String> keys = new ArrayList<>();
+            if (id != null) {
+                keys.add(idKey(id));
+                keys.add(bodyKey(id));
+            }
+            if (email != null) {
+                keys.add(emailKey(email));
+            }
+            fence.write(Map.of(), DEFAULT_TTL, keys);
+            keys.forEach(this::invalidateLocal);
+            keys.forEach(invalidationBus::publish);
+        });
+        log.debug("Evicted user cache for id: {}, email: {}", id, email);
+    }
+
+    public boolean isUserIdMissing(String id) {
+        return isMissing(missingKey("id:" + id));
+    }
+
+    public boolean isUserEmailMissing(String email) {
+        return isMissing(missingKey("email:" + email));
+    }
+
+    public void markUserIdMissing(String id, long ticket, boolean fromReplica) {
+        markMissing(missingKey("id:" + id), ticket, fromReplica);
+    }
+
+    public void markUserEmailMissing(String email, long ticket, boolean fromReplica) {
+        markMissing(missingKey("email:" + email), ticket, fromReplica);
+    }
+
+    public void clearMissing(String id, String email) {
+        clearMissing(id != null ? List.of(id) : List.of(), email != null ? List.of(email) : List.of());
+    }
+
+    public void clearMissing(Collection<String> ids, Collection<String> emails) {
+        List<String> keys = new ArrayList<>(ids.size() + emails.size());
+        ids.forEach(id -> keys.add(missingKey("id:" + id)));
+        emails.forEach(email -> keys.add(missingKey("email:" + email)));
+        if (keys.isEmpty()) {
+            return;
         }
+        CacheFence.nowAndAfterCommit(() -> {
+            fence.write(Map.of(), negativeTtl, keys, connection -> invalidationBus.publish(connection, keys));
+            localMissing.invalidateAll(keys);
+        });
     }
 
     public void clearAll() {
-        var keys = redisTemplate.keys(CACHE_PREFIX + "*");
-        if (!keys.isEmpty()) {
-            redisTemplate.delete(keys);
-            log.debug("Cleared all card cache entries");
+        long generation = namespace.bump();
+        localCache.invalidateAll();
+        localEmailIndex.invalidateAll();
+        localMissing.invalidateAll();
+        bodies.invalidateAllLocal();
+        invalidationBus.publish(CACHE_PREFIX + CacheInvalidationBus.WILDCARD);
+        log.debug("Cleared all user cache entries, now at generation {}", generation);
+    }
+
+    public TieredCacheStats getStats() {
+        return new TieredCacheStats(localHits.sum(), localMisses.sum(), remoteHits.sum(), remoteMisses.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TieredCacheStats.bindTo(registry, "users", this::getStats);
+    }
+
+    private UserResponseDto lookupByEmail(String emailKey, String localId) {
+        String id = localId != null ? localId : stringRedisTemplate.opsForValue().get(emailKey);
+        return id != null ? redisTemplate.opsForValue().get(idKey(id)) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserResponseDto getWithEarlyRefresh(String id, String key) {
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, UserResponseDto> ops = (RedisOperations<String, UserResponseDto>) operations;
+                ops.opsForValue().get(key);
+                ops.getExpire(key, TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+        UserResponseDto cached = (UserResponseDto) results.get(0);
+        recordRemote(key, cached);
+        if (cached != null && results.get(1) instanceof Long remainingTtl
+                && refresher.shouldRefresh(remainingTtl, localTtl)) {
+            refresher.refresh(key, () -> refreshHandler.accept(id));
+        }
+        return cached;
+    }
+
+    private void recordRemote(String key, UserResponseDto cached) {
+        if (cached != null) {
+            remoteHits.increment();
+            localCache.put(key, cached);
+        } else {
+            remoteMisses.increment();
+        }
+    }
+
+    private boolean isMissing(String key) {
+        if (localMissing.getIfPresent(key) != null) {
+            return true;
+        }
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(key))) {
+            localMissing.put(key, Boolean.TRUE);
+            return true;
+        }
+        return false;
+    }
+
+    private void markMissing(String key, long ticket, boolean fromReplica) {
+        if (fence.fill(key, RedisSerializer.string().serialize("1"), fillTtl(negativeTtl, fromReplica), ticket)
+                && !fromReplica) {
+            localMissing.put(key, Boolean.TRUE);
+            log.debug("Cached negative entry: {}", key);
+        }
+    }
+
+    /**
+     * Rows read from a replica may trail a write the fence already let through, so they are kept
+     * in Redis only briefly and never in the local tier.
+     */
+    private Duration fillTtl(Duration ttl, boolean fromReplica) {
+        return fromReplica && replicaFillTtl.compareTo(ttl) < 0 ? replicaFillTtl : ttl;
+    }
+
+    private Map<String, byte[]> userEntries(String idKey, String emailKey, String id, UserResponseDto user) {
+        Map<String, byte[]> values = new HashMap<>();
+        values.put(idKey, serialize(user));
+        if (emailKey != null) {
+            values.put(emailKey, RedisSerializer.string().serialize(id));
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serialize(UserResponseDto user) {
+        return ((RedisSerializer<UserResponseDto>) redisTemplate.getValueSerializer()).serialize(user);
+    }
+
+    private String missingKey(String suffix) {
+        return namespace.key("missing:" + suffix);
+    }
+
+    private String idKey(String id) {
+        return namespace.key("id:" + id);
+    }
+
+    private String emailKey(String email) {
+        return namespace.key("email:" + email);
+    }
+
+    private String bodyKey(String id) {
+        return namespace.key("body:" + id);
+    }
+
+    private void invalidateLocal(String key) {
+        if (key.endsWith(CacheInvalidationBus.WILDCARD)) {
+            namespace.resync();
+            localCache.invalidateAll();
+            localEmailIndex.invalidateAll();
+            localMissing.invalidateAll();
+            bodies.invalidateAllLocal();
+        } else {
+            localCache.invalidate(key);
+            localEmailIndex.invalidate(key);
+            localMissing.invalidate(key);
+            bodies.invalidateLocal(key);
         }
     }
 
-}
\ No newline at end of file
+}
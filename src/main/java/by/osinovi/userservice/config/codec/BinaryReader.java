@@ -0,0 +1,106 @@
+package by.osinovi.userservice.config.codec;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+public class BinaryReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private int wireType;
+
+    public BinaryReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public int readByte() {
+        checkAvailable(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public int readField() {
+        long tag = readVarint();
+        wireType = (int) (tag & 0x7);
+        return (int) (tag >>> 3);
+    }
+
+    public long readLong() {
+        expect(BinaryWriter.WIRE_VARINT);
+        long raw = readVarint();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public int readInt() {
+        return Math.toIntExact(readLong());
+    }
+
+    public LocalDate readDate() {
+        return LocalDate.ofEpochDay(readLong());
+    }
+
+    public String readString() {
+        expect(BinaryWriter.WIRE_BYTES);
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public BinaryReader readNested() {
+        expect(BinaryWriter.WIRE_BYTES);
+        int length = readLength();
+        BinaryReader nested = new BinaryReader(buffer, position, length);
+        position += length;
+        return nested;
+    }
+
+    public void skipField() {
+        switch (wireType) {
+            case BinaryWriter.WIRE_VARINT -> readVarint();
+            case BinaryWriter.WIRE_BYTES -> {
+                int length = readLength();
+                position += length;
+            }
+            default -> throw new SerializationException("Unsupported wire type " + wireType);
+        }
+    }
+
+    private int readLength() {
+        int length = Math.toIntExact(readVarint());
+        checkAvailable(length);
+        return length;
+    }
+
+    private long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("Malformed varint");
+    }
+
+    private void expect(int expectedWireType) {
+        if (wireType != expectedWireType) {
+            throw new SerializationException("Unexpected wire type " + wireType + ", expected " + expectedWireType);
+        }
+    }
+
+    private void checkAvailable(int length) {
+        if (length < 0 || position + length > limit) {
+            throw new SerializationException("Truncated binary payload");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package by.osinovi.userservice.config.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@Slf4j
+public abstract class BinaryRedisSerializer<T> implements RedisSerializer<T> {
+
+    static final int MAGIC = 0xB1;
+    static final int FORMAT_VERSION = 1;
+
+    private final RedisSerializer<T> fallback;
+
+    protected BinaryRedisSerializer(RedisSerializer<T> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(T value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        BinaryWriter writer = new BinaryWriter(128)
+                .writeByte(MAGIC)
+                .writeByte(FORMAT_VERSION);
+        write(writer, value);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        BinaryReader reader = new BinaryReader(bytes, 0, bytes.length);
+        reader.readByte();
+        int version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            log.warn("Treating cached value with unsupported binary format version {} as a miss", version);
+            return null;
+        }
+        return read(reader);
+    }
+
+    protected abstract void write(BinaryWriter writer, T value);
+
+    protected abstract T read(BinaryReader reader);
+}
@@ -0,0 +1,53 @@
+package by.osinovi.userservice.config.codec;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+public class CardResponseDtoBinarySerializer extends BinaryRedisSerializer<CardResponseDto> {
+
+    private static final int ID = 1;
+    private static final int NUMBER = 2;
+    private static final int HOLDER = 3;
+    private static final int EXPIRATION_DATE = 4;
+    private static final int USER_ID = 5;
+    private static final int VERSION = 6;
+
+    public CardResponseDtoBinarySerializer(RedisSerializer<CardResponseDto> fallback) {
+        super(fallback);
+    }
+
+    @Override
+    protected void write(BinaryWriter writer, CardResponseDto card) {
+        writeCard(writer, card);
+    }
+
+    @Override
+    protected CardResponseDto read(BinaryReader reader) {
+        return readCard(reader);
+    }
+
+    static void writeCard(BinaryWriter writer, CardResponseDto card) {
+        writer.writeLong(ID, card.getId())
+                .writeString(NUMBER, card.getNumber())
+                .writeString(HOLDER, card.getHolder())
+                .writeDate(EXPIRATION_DATE, card.getExpirationDate())
+                .writeInt(USER_ID, card.getUserId())
+                .writeLong(VERSION, card.getVersion());
+    }
+
+    static CardResponseDto readCard(BinaryReader reader) {
+        CardResponseDto card = new CardResponseDto();
+        while (reader.hasRemaining()) {
+            switch (reader.readField()) {
+                case ID -> card.setId(reader.readLong());
+                case NUMBER -> card.setNumber(reader.readString());
+                case HOLDER -> card.setHolder(reader.readString());
+                case EXPIRATION_DATE -> card.setExpirationDate(reader.readDate());
+                case USER_ID -> card.setUserId(reader.readInt());
+                case VERSION -> card.setVersion(reader.readLong());
+                default -> reader.skipField();
+            }
+        }
+        return card;
+    }
+}
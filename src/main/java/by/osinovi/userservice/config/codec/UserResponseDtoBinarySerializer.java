@@ -0,0 +1,60 @@
+package by.osinovi.userservice.config.codec;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserResponseDtoBinarySerializer extends BinaryRedisSerializer<UserResponseDto> {
+
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int SURNAME = 3;
+    private static final int BIRTH_DATE = 4;
+    private static final int EMAIL = 5;
+    private static final int CARD = 6;
+    private static final int VERSION = 7;
+
+    public UserResponseDtoBinarySerializer(RedisSerializer<UserResponseDto> fallback) {
+        super(fallback);
+    }
+
+    @Override
+    protected void write(BinaryWriter writer, UserResponseDto user) {
+        writer.writeLong(ID, user.getId())
+                .writeString(NAME, user.getName())
+                .writeString(SURNAME, user.getSurname())
+                .writeDate(BIRTH_DATE, user.getBirthDate())
+                .writeString(EMAIL, user.getEmail())
+                .writeLong(VERSION, user.getVersion());
+        if (user.getCards() != null) {
+            for (CardResponseDto card : user.getCards()) {
+                BinaryWriter cardWriter = new BinaryWriter(64);
+                CardResponseDtoBinarySerializer.writeCard(cardWriter, card);
+                writer.writeBytes(CARD, cardWriter.toByteArray());
+            }
+        }
+    }
+
+    @Override
+    protected UserResponseDto read(BinaryReader reader) {
+        UserResponseDto user = new UserResponseDto();
+        List<CardResponseDto> cards = new ArrayList<>();
+        while (reader.hasRemaining()) {
+            switch (reader.readField()) {
+                case ID -> user.setId(reader.readLong());
+                case NAME -> user.setName(reader.readString());
+                case SURNAME -> user.setSurname(reader.readString());
+                case BIRTH_DATE -> user.setBirthDate(reader.readDate());
+                case EMAIL -> user.setEmail(reader.readString());
+                case VERSION -> user.setVersion(reader.readLong());
+                case CARD -> cards.add(CardResponseDtoBinarySerializer.readCard(reader.readNested()));
+                default -> reader.skipField();
+            }
+        }
+        user.setCards(cards);
+        return user;
+    }
+}
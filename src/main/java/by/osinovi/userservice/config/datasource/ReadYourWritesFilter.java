@@ -0,0 +1,64 @@
+package by.osinovi.userservice.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Identifies the client by the {@code X-Client-Id} header or, failing that, a cookie issued on
+ * its first write. The remote address is not used: behind a proxy every client shares it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    static final String CLIENT_ID_COOKIE = "client-id";
+
+    private static final Set<String> SAFE_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name(), HttpMethod.TRACE.name());
+
+    private final ReadYourWritesTracker tracker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        tracker.bind(clientId(request, response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracker.clear();
+        }
+    }
+
+    private static String clientId(HttpServletRequest request, HttpServletResponse response) {
+        String header = request.getHeader(CLIENT_ID_HEADER);
+        if (header != null && !header.isBlank()) {
+            return header;
+        }
+        Cookie cookie = WebUtils.getCookie(request, CLIENT_ID_COOKIE);
+        if (cookie != null && !cookie.getValue().isBlank()) {
+            return cookie.getValue();
+        }
+        if (SAFE_METHODS.contains(request.getMethod())) {
+            return null;
+        }
+        String issued = UUID.randomUUID().toString();
+        Cookie issuedCookie = new Cookie(CLIENT_ID_COOKIE, issued);
+        issuedCookie.setPath("/");
+        issuedCookie.setHttpOnly(true);
+        response.addCookie(issuedCookie);
+        return issued;
+    }
+}
@@ -0,0 +1,70 @@
+package by.osinovi.userservice.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients wrote within the window. The marker lives in Redis, so a client's
+ * next read is kept on the primary whichever node it lands on. Also notes whether the current
+ * request read from a replica, so what it loaded is only cached briefly.
+ */
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private static final String KEY_PREFIX = "ryw::";
+
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+    private final ThreadLocal<Boolean> replicaRead = new ThreadLocal<>();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration window;
+
+    public ReadYourWritesTracker(StringRedisTemplate stringRedisTemplate, Duration window) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.window = window;
+    }
+
+    public void bind(String clientKey) {
+        currentClient.set(clientKey);
+    }
+
+    public void clear() {
+        currentClient.remove();
+        replicaRead.remove();
+    }
+
+    public void markReplicaRead() {
+        replicaRead.set(Boolean.TRUE);
+    }
+
+    public boolean readFromReplica() {
+        return Boolean.TRUE.equals(replicaRead.get());
+    }
+
+    public void recordWrite() {
+        String clientKey = currentClient.get();
+        if (clientKey == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForValue().set(KEY_PREFIX + clientKey, "1", window);
+        } catch (DataAccessException e) {
+            log.warn("Failed to record write for client {}: {}", clientKey, e.getMessage());
+        }
+    }
+
+    public boolean hasRecentWrite() {
+        String clientKey = currentClient.get();
+        if (clientKey == null) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(KEY_PREFIX + clientKey));
+        } catch (DataAccessException e) {
+            log.warn("Failed to look up recent writes for client {}, reading from primary: {}", clientKey, e.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package by.osinovi.userservice.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ReplicaHealthMonitor implements AutoCloseable {
+
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxReplicationLag;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-health").daemon().factory());
+
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, Duration checkInterval, Duration maxReplicationLag) {
+        this.replicas = replicas;
+        this.maxReplicationLag = maxReplicationLag;
+        if (!replicas.isEmpty()) {
+            scheduler.scheduleWithFixedDelay(this::checkAll, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public boolean isHealthy(String replica) {
+        return !unhealthy.contains(replica);
+    }
+
+    void checkAll() {
+        replicas.forEach((name, dataSource) -> {
+            String problem = check(dataSource);
+            if (problem == null) {
+                if (unhealthy.remove(name)) {
+                    log.info("Replica {} is healthy again, routing reads to it", name);
+                }
+            } else if (unhealthy.add(name)) {
+                log.warn("Excluding replica {} from read routing: {}", name, problem);
+            }
+        });
+    }
+
+    private String check(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return "connection is not valid";
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                long lagMillis = rs.next() ? rs.getLong(1) : 0;
+                return lagMillis > maxReplicationLag.toMillis() ? "replication lag " + lagMillis + "ms" : null;
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        scheduler.shutdownNow();
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
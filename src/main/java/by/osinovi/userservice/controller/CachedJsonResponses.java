@@ -0,0 +1,119 @@
+package by.osinovi.userservice.controller;
+
+import by.osinovi.userservice.config.CachedBody;
+import by.osinovi.userservice.config.CardCacheManager;
+import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.config.datasource.ReadYourWritesTracker;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Serves hot GET responses from cached, already rendered JSON bytes, so a hit skips both the
+ * Redis value decode and the Jackson pass that would turn the DTO back into the same JSON.
+ */
+@Component
+@Profile("!reactive")
+public class CachedJsonResponses {
+    private static final String GZIP = "gzip";
+
+    private final UserCacheManager userCacheManager;
+    private final CardCacheManager cardCacheManager;
+    private final ObjectMapper objectMapper;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final boolean enabled;
+    private final boolean gzipEnabled;
+    private final int gzipMinSize;
+
+    public CachedJsonResponses(UserCacheManager userCacheManager,
+                               CardCacheManager cardCacheManager,
+                               ObjectMapper objectMapper,
+                               ReadYourWritesTracker readYourWritesTracker,
+                               @Value("${cache.response-body.enabled:true}") boolean enabled,
+                               @Value("${cache.response-body.gzip.enabled:true}") boolean gzipEnabled,
+                               @Value("${cache.response-body.gzip.min-size:1KB}") DataSize gzipMinSize) {
+        this.userCacheManager = userCacheManager;
+        this.cardCacheManager = cardCacheManager;
+        this.objectMapper = objectMapper;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.enabled = enabled;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinSize = gzipEnabled ? Math.toIntExact(gzipMinSize.toBytes()) : -1;
+    }
+
+    public ResponseEntity<byte[]> user(String id, String acceptEncoding, Supplier<UserResponseDto> loader) {
+        CachedBody body = enabled ? userCacheManager.getUserBody(id) : null;
+        if (body == null) {
+            long ticket = enabled ? userCacheManager.fillTicket() : 0;
+            UserResponseDto user = loader.get();
+            body = render(user, ETags.forUser(user));
+            if (enabled) {
+                userCacheManager.fillUserBody(id, body, ticket, readYourWritesTracker.readFromReplica());
+            }
+        }
+        return respond(body, acceptEncoding);
+    }
+
+    public ResponseEntity<byte[]> userCards(String userId, String acceptEncoding, Supplier<List<CardResponseDto>> loader) {
+        CachedBody body = enabled ? cardCacheManager.getCardsBodyByUserId(userId) : null;
+        if (body == null) {
+            long ticket = enabled ? cardCacheManager.fillTicket() : 0;
+            List<CardResponseDto> cards = loader.get();
+            body = render(cards, ETags.forCards(cards));
+            if (enabled) {
+                cardCacheManager.fillCardsBodyByUserId(userId, body, ticket, readYourWritesTracker.readFromReplica());
+            }
+        }
+        return respond(body, acceptEncoding);
+    }
+
+    private CachedBody render(Object value, String etag) {
+        try {
+            return CachedBody.of(objectMapper.writeValueAsBytes(value), etag, gzipMinSize);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<byte[]> respond(CachedBody body, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON);
+        if (gzipEnabled) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (body.gzipped() && acceptsGzip(acceptEncoding)) {
+            return response.eTag(gzipTag(body.etag())).header(HttpHeaders.CONTENT_ENCODING, GZIP).body(body.body());
+        }
+        return response.eTag(body.etag()).body(body.identity());
+    }
+
+    private static String gzipTag(String etag) {
+        return etag != null ? etag.substring(0, etag.length() - 1) + "-" + GZIP + "\"" : null;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+}
@@ -1,10 +1,13 @@
 package by.osinovi.userservice.controller;
 
+import by.osinovi.userservice.dto.card.CardBatchResultDto;
 import by.osinovi.userservice.dto.card.CardRequestDto;
 import by.osinovi.userservice.dto.card.CardResponseDto;
 import by.osinovi.userservice.service.CardService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,29 +15,46 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/cards")
 @RequiredArgsConstructor
 public class CardController {
     private final CardService cardService;
+    private final CachedJsonResponses cachedJsonResponses;
 
     @PostMapping("/user/{userId}")
     public ResponseEntity<CardResponseDto> createCard(@PathVariable String userId, @Valid @RequestBody CardRequestDto cardRequestDto) {
         return ResponseEntity.status(HttpStatus.CREATED).body(cardService.createCard(userId, cardRequestDto));
     }
 
+    @PostMapping("/user/{userId}/batch")
+    public ResponseEntity<CardBatchResultDto> createCards(@PathVariable String userId, @RequestBody List<CardRequestDto> cardRequestDtos) {
+        return ResponseEntity.status(HttpStatus.OK).body(cardService.createCards(userId, cardRequestDtos));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CardResponseDto> getCardById(@PathVariable String id) {
-        return ResponseEntity.status(HttpStatus.OK).body(cardService.getCardById(id));
+        CardResponseDto card = cardService.getCardById(id);
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.forCard(card)).body(card);
+    }
+
+    @GetMapping("/by-number")
+    public ResponseEntity<CardResponseDto> getCardByNumber(@RequestParam String number) {
+        return ResponseEntity.status(HttpStatus.OK).body(cardService.getCardByNumber(number));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<CardResponseDto>> getCardsByUserId(@PathVariable String userId) {
-        return ResponseEntity.status(HttpStatus.OK).body(cardService.getCardsByUserId(userId));
+    public ResponseEntity<byte[]> getCardsByUserId(@PathVariable String userId,
+                                                   @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return cachedJsonResponses.userCards(userId, acceptEncoding, () -> cardService.getCardsByUserId(userId));
     }
 
     @PutMapping("/{id}/user/{userId}")
-    public ResponseEntity<CardResponseDto> updateCard(@PathVariable String id, @PathVariable String userId, @Valid @RequestBody CardRequestDto cardRequestDto) {
-        return ResponseEntity.status(HttpStatus.OK).body(cardService.updateCard(id, userId, cardRequestDto));
+    public ResponseEntity<CardResponseDto> updateCard(@PathVariable String id, @PathVariable String userId,
+                                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @Valid @RequestBody CardRequestDto cardRequestDto) {
+        CardResponseDto card = cardService.updateCard(id, userId, cardRequestDto, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.forCard(card)).body(card);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,87 @@
+package by.osinovi.userservice.controller;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.exception.PreconditionFailedException;
+
+import java.util.List;
+
+/**
+ * Strong entity tags derived from row versions, so a tag can be computed from a cached DTO
+ * without going back to the database.
+ * <p>
+ * A user tag is {@code "<version>.<cards digest>"}, a card tag is {@code "<version>"} and a
+ * card list tag is the digest of every card's id and version. {@code If-Match} is checked
+ * against the leading row version only, which is all a PUT can conflict with.
+ */
+public final class ETags {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ETags() {
+    }
+
+    public static String forUser(UserResponseDto user) {
+        String cards = digest(user.getCards());
+        if (user.getVersion() == null || cards == null) {
+            return null;
+        }
+        return quote(user.getVersion() + "." + cards);
+    }
+
+    public static String forCard(CardResponseDto card) {
+        return card.getVersion() != null ? quote(String.valueOf(card.getVersion())) : null;
+    }
+
+    public static String forCards(List<CardResponseDto> cards) {
+        String digest = digest(cards);
+        return digest != null ? quote(digest) : null;
+    }
+
+    /**
+     * Returns the row version an {@code If-Match} header expects, or {@code null} when the
+     * header is absent or {@code *}.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        int end = 1;
+        while (end < tag.length() - 1 && Character.isDigit(tag.charAt(end))) {
+            end++;
+        }
+        if (end == 1 || end - 1 > 18) {
+            throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current version");
+        }
+        return Long.valueOf(tag.substring(1, end));
+    }
+
+    private static String digest(List<CardResponseDto> cards) {
+        long hash = FNV_OFFSET;
+        if (cards != null) {
+            for (CardResponseDto card : cards) {
+                if (card.getVersion() == null) {
+                    return null;
+                }
+                hash = mix(mix(hash, card.getId()), card.getVersion());
+            }
+        }
+        return Long.toHexString(hash);
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -1,30 +1,69 @@
 package by.osinovi.userservice.controller;
 
+import by.osinovi.userservice.dto.user.UserImportResultDto;
+import by.osinovi.userservice.dto.user.UserPageResponseDto;
 import by.osinovi.userservice.dto.user.UserRequestDto;
 import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.service.UserExportService;
+import by.osinovi.userservice.service.UserImportService;
 import by.osinovi.userservice.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
-@RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final CachedJsonResponses cachedJsonResponses;
+    private final Duration exportTimeout;
+
+    public UserController(UserService userService,
+                          UserExportService userExportService,
+                          UserImportService userImportService,
+                          CachedJsonResponses cachedJsonResponses,
+                          @Value("${export.users.timeout:30m}") Duration exportTimeout) {
+        this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.cachedJsonResponses = cachedJsonResponses;
+        this.exportTimeout = exportTimeout;
+    }
 
     @PostMapping
     public ResponseEntity<UserResponseDto> createUser(@Valid @RequestBody UserRequestDto userRequestDto) {
         return ResponseEntity.status(HttpStatus.CREATED).body(userService.createUser(userRequestDto));
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<UserImportResultDto> importUsersNdjson(InputStream inputStream) throws IOException {
+        return ResponseEntity.status(HttpStatus.OK).body(userImportService.importNdjson(inputStream));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResultDto> importUsersCsv(InputStream inputStream) throws IOException {
+        return ResponseEntity.status(HttpStatus.OK).body(userImportService.importCsv(inputStream));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDto> getUserById(@PathVariable String id) {
-        return ResponseEntity.status(HttpStatus.OK).body(userService.getUserById(id));
+    public ResponseEntity<byte[]> getUserById(@PathVariable String id,
+                                              @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return cachedJsonResponses.user(id, acceptEncoding, () -> userService.getUserById(id));
     }
 
     @GetMapping(params = "ids")
@@ -32,14 +71,32 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.OK).body(userService.getUsersByIds(ids));
     }
 
+    @GetMapping(params = "!ids")
+    public ResponseEntity<UserPageResponseDto> getUsers(@RequestParam(required = false) Long cursor,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(userService.getUsers(cursor, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportUsers(@RequestParam(required = false) Long afterId, HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            userExportService.exportUsers(afterId, response.getOutputStream());
+            return null;
+        });
+    }
+
     @GetMapping("/email/{email}")
     public ResponseEntity<UserResponseDto> getUserByEmail(@PathVariable String email) {
         return  ResponseEntity.status(HttpStatus.OK).body(userService.getUserByEmail(email));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<UserResponseDto> updateUser(@PathVariable String id, @Valid @RequestBody UserRequestDto userRequestDto) {
-        return ResponseEntity.status(HttpStatus.OK).body(userService.updateUser(id, userRequestDto));
+    public ResponseEntity<UserResponseDto> updateUser(@PathVariable String id,
+                                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @Valid @RequestBody UserRequestDto userRequestDto) {
+        UserResponseDto user = userService.updateUser(id, userRequestDto, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.forUser(user)).body(user);
     }
 
     @DeleteMapping("/{id}")
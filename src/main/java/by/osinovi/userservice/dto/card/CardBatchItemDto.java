@@ -0,0 +1,17 @@
+package by.osinovi.userservice.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardBatchItemDto {
+    private int index;
+    private boolean created;
+    private CardResponseDto card;
+    private String error;
+}
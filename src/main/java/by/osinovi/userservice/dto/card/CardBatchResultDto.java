@@ -0,0 +1,18 @@
+package by.osinovi.userservice.dto.card;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardBatchResultDto {
+    private int created;
+    private int failed;
+    private List<CardBatchItemDto> items;
+}
@@ -17,4 +17,5 @@ public class CardResponseDto {
     private String holder;
     private LocalDate expirationDate;
     private Integer userId;
+    private Long version;
 }
\ No newline at end of file
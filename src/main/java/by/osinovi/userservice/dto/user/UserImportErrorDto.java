@@ -0,0 +1,15 @@
+package by.osinovi.userservice.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportErrorDto {
+    private long line;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package by.osinovi.userservice.dto.user;
+
+import by.osinovi.userservice.dto.card.CardRequestDto;
+import jakarta.validation.Valid;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserImportRecordDto extends UserRequestDto {
+    @Valid
+    private List<CardRequestDto> cards = new ArrayList<>();
+}
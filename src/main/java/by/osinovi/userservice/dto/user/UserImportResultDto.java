@@ -0,0 +1,22 @@
+package by.osinovi.userservice.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResultDto {
+    private long processed;
+    private long importedUsers;
+    private long importedCards;
+    private long failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<UserImportErrorDto> errors;
+}
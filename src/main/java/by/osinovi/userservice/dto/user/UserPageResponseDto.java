@@ -0,0 +1,17 @@
+package by.osinovi.userservice.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageResponseDto {
+    private List<UserResponseDto> users;
+    private Long nextCursor;
+}
@@ -20,4 +20,5 @@ public class UserResponseDto {
     private LocalDate birthDate;
     private String email;
     private List<CardResponseDto> cards;
+    private Long version;
 }
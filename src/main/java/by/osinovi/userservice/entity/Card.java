@@ -9,15 +9,20 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "card_info")
 @Getter
 @Setter
@@ -25,7 +30,8 @@ import java.time.LocalDate;
 @NoArgsConstructor
 public class Card {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_info_id_seq")
+    @SequenceGenerator(name = "card_info_id_seq", sequenceName = "card_info_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -40,4 +46,8 @@ public class Card {
 
     @Column(name = "expiration_date", nullable = false)
     private LocalDate expirationDate;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,7 @@
+package by.osinovi.userservice.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -10,6 +10,7 @@ import org.mapstruct.MappingConstants;
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface CardMapper {
 
+    @Mapping(target = "version", ignore = true)
     Card toEntity(CardRequestDto dto);
 
     @Mapping(source = "user.id", target = "userId")
@@ -1,15 +1,37 @@
 package by.osinovi.userservice.mapper;
 
+import by.osinovi.userservice.dto.card.CardResponseDto;
 import by.osinovi.userservice.dto.user.UserRequestDto;
 import by.osinovi.userservice.dto.user.UserResponseDto;
 import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.repository.projection.UserCardRow;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING,uses = CardMapper.class)
 public interface UserMapper {
 
+    @Mapping(target = "version", ignore = true)
     User toEntity(UserRequestDto dto);
 
     UserResponseDto toDto(User entity);
+
+    default List<UserResponseDto> toDtos(List<UserCardRow> rows) {
+        Map<Long, UserResponseDto> users = new LinkedHashMap<>();
+        for (UserCardRow row : rows) {
+            UserResponseDto user = users.computeIfAbsent(row.id(), id -> new UserResponseDto(
+                    id, row.name(), row.surname(), row.birthDate(), row.email(), new ArrayList<>(), row.version()));
+            if (row.cardId() != null) {
+                user.getCards().add(new CardResponseDto(row.cardId(), row.cardNumber(), row.cardHolder(),
+                        row.cardExpirationDate(), row.id().intValue(), row.cardVersion()));
+            }
+        }
+        return new ArrayList<>(users.values());
+    }
 }
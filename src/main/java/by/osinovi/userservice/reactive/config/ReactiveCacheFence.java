@@ -0,0 +1,75 @@
+package by.osinovi.userservice.reactive.config;
+
+import by.osinovi.userservice.config.CacheFence;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reactive side of {@link CacheFence}: same sequence key, fence keys and fill script, so fills on
+ * either stack are dropped once a write from the other has moved the fence past their ticket.
+ */
+public class ReactiveCacheFence {
+
+    private static final ByteBuffer FILL_SCRIPT = buffer(CacheFence.FILL_SCRIPT);
+
+    private final String sequenceKey;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final Duration fenceTtl;
+
+    public ReactiveCacheFence(String prefix, ReactiveStringRedisTemplate stringRedisTemplate, Duration fenceTtl) {
+        this.sequenceKey = prefix + "fence";
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.fenceTtl = fenceTtl;
+    }
+
+    public static Mono<Void> nowAndAfterCommit(Mono<Void> action) {
+        return action.then(TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(synchronization -> synchronization.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return action;
+                    }
+                }))
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .then());
+    }
+
+    public Mono<Long> ticket() {
+        return stringRedisTemplate.opsForValue().get(sequenceKey)
+                .map(Long::parseLong)
+                .defaultIfEmpty(0L);
+    }
+
+    public Mono<Void> raise(List<String> keys) {
+        return stringRedisTemplate.opsForValue().increment(sequenceKey)
+                .flatMapMany(fence -> Flux.fromIterable(keys)
+                        .concatMap(key -> stringRedisTemplate.opsForValue()
+                                .set(CacheFence.fenceKey(key), String.valueOf(fence), fenceTtl)))
+                .then();
+    }
+
+    public Mono<Boolean> fill(String key, ByteBuffer value, Duration ttl, long ticket) {
+        return stringRedisTemplate.execute(connection -> connection.scriptingCommands().<Long>eval(
+                        FILL_SCRIPT.duplicate(), ReturnType.INTEGER, 2,
+                        buffer(key), buffer(CacheFence.fenceKey(key)), value,
+                        buffer(String.valueOf(ttl.toMillis())), buffer(String.valueOf(ticket))))
+                .next()
+                .map(result -> result == 1)
+                .defaultIfEmpty(false);
+    }
+
+    public static ByteBuffer buffer(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,29 @@
+package by.osinovi.userservice.reactive.config;
+
+import by.osinovi.userservice.config.CacheInvalidationBus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Publishes on the channel used by {@link CacheInvalidationBus}, so servlet nodes sharing the Redis
+ * drop their in-process copies of keys written by reactive nodes.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCacheInvalidationPublisher {
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+
+    public Mono<Void> publish(String key) {
+        return stringRedisTemplate.convertAndSend(CacheInvalidationBus.CHANNEL, nodeId + CacheInvalidationBus.SEPARATOR + key)
+                .then();
+    }
+}
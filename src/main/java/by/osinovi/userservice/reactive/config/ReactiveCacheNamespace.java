@@ -0,0 +1,50 @@
+package by.osinovi.userservice.reactive.config;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+public class ReactiveCacheNamespace {
+
+    private static final Duration RESYNC_INTERVAL = Duration.ofSeconds(5);
+
+    private final String prefix;
+    private final String generationKey;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+
+    private volatile long generation = -1;
+    private volatile long syncedAt;
+
+    public ReactiveCacheNamespace(String prefix, ReactiveStringRedisTemplate stringRedisTemplate) {
+        this.prefix = prefix;
+        this.generationKey = prefix + "generation";
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public Mono<String> key(String suffix) {
+        return currentGeneration().map(current -> format(current, suffix));
+    }
+
+    public Mono<List<String>> keys(List<String> suffixes) {
+        return currentGeneration().map(current -> suffixes.stream().map(suffix -> format(current, suffix)).toList());
+    }
+
+    private String format(long current, String suffix) {
+        return prefix + "v" + current + "::" + suffix;
+    }
+
+    private Mono<Long> currentGeneration() {
+        if (generation >= 0 && System.nanoTime() - syncedAt <= RESYNC_INTERVAL.toNanos()) {
+            return Mono.just(generation);
+        }
+        return stringRedisTemplate.opsForValue().get(generationKey)
+                .map(Long::parseLong)
+                .defaultIfEmpty(0L)
+                .doOnNext(value -> {
+                    generation = value;
+                    syncedAt = System.nanoTime();
+                });
+    }
+}
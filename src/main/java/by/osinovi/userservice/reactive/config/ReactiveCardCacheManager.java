@@ -0,0 +1,137 @@
+package by.osinovi.userservice.reactive.config;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("reactive")
+public class ReactiveCardCacheManager {
+
+    private static final String CACHE_PREFIX = "cards::";
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    private static final String ID_SEPARATOR = ",";
+
+    private final ReactiveRedisTemplate<String, CardResponseDto> redisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final ReactiveCacheInvalidationPublisher invalidationPublisher;
+    private final ReactiveCacheNamespace namespace;
+    private final ReactiveCacheFence fence;
+
+    public ReactiveCardCacheManager(ReactiveRedisTemplate<String, CardResponseDto> cardReactiveRedisTemplate,
+                                    ReactiveStringRedisTemplate stringRedisTemplate,
+                                    ReactiveCacheInvalidationPublisher invalidationPublisher) {
+        this.redisTemplate = cardReactiveRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.namespace = new ReactiveCacheNamespace(CACHE_PREFIX, stringRedisTemplate);
+        this.fence = new ReactiveCacheFence(CACHE_PREFIX, stringRedisTemplate, DEFAULT_TTL);
+    }
+
+    public Mono<CardResponseDto> getCard(String id) {
+        return namespace.key(id).flatMap(key -> read(key));
+    }
+
+    public Mono<Long> fillTicket() {
+        return fence.ticket();
+    }
+
+    public Mono<Void> cacheCard(String id, CardResponseDto card) {
+        return namespace.key(id).flatMap(key -> ReactiveCacheFence.nowAndAfterCommit(fence.raise(List.of(key))
+                .then(redisTemplate.opsForValue().set(key, card, DEFAULT_TTL))
+                .then(invalidationPublisher.publish(key))));
+    }
+
+    public Mono<Void> fillCard(String id, CardResponseDto card, long ticket) {
+        return namespace.key(id).flatMap(key -> fence.fill(key, serialize(card), DEFAULT_TTL, ticket)).then();
+    }
+
+    public Mono<Void> evictCard(String id) {
+        return namespace.key(id).flatMap(this::delete);
+    }
+
+    public Mono<List<CardResponseDto>> getCardsByUserId(String userId) {
+        return userCardsKey(userId)
+                .flatMap(key -> stringRedisTemplate.opsForValue().get(key))
+                .flatMap(ids -> {
+                    if (ids.isEmpty()) {
+                        return Mono.just(List.<CardResponseDto>of());
+                    }
+                    return namespace.keys(List.of(ids.split(ID_SEPARATOR)))
+                            .flatMap(keys -> redisTemplate.opsForValue().multiGet(keys))
+                            .filter(cards -> cards.stream().allMatch(Objects::nonNull));
+                });
+    }
+
+    public Mono<Void> fillCardsByUserId(String userId, List<CardResponseDto> cards, long ticket) {
+        String ids = cards.stream().map(card -> String.valueOf(card.getId())).collect(Collectors.joining(ID_SEPARATOR));
+        return Flux.fromIterable(cards)
+                .concatMap(card -> namespace.key(String.valueOf(card.getId()))
+                        .flatMap(key -> fence.fill(key, serialize(card), DEFAULT_TTL, ticket)))
+                .then(userCardsKey(userId))
+                .flatMap(key -> fence.fill(key, ReactiveCacheFence.buffer(ids), DEFAULT_TTL, ticket))
+                .then();
+    }
+
+    public Mono<Void> evictCardsByUserId(String userId) {
+        return userCardsKey(userId).flatMap(this::delete)
+                .then(namespace.key("body:user:" + userId).flatMap(this::delete));
+    }
+
+    public Mono<Void> evictCardsOfUser(String userId, Map<String, String> numbersById) {
+        return Flux.fromIterable(numbersById.entrySet())
+                .concatMap(card -> evictCard(card.getKey()).then(evictCardNumber(card.getValue())))
+                .then(evictCardsByUserId(userId));
+    }
+
+    public Mono<String> getCardIdByNumber(String number) {
+        return numberKey(number).flatMap(key -> stringRedisTemplate.opsForValue().get(key));
+    }
+
+    public Mono<Void> fillCardNumber(String number, String id, long ticket) {
+        return numberKey(number).flatMap(key -> fence.fill(key, ReactiveCacheFence.buffer(id), DEFAULT_TTL, ticket)
+                .then(invalidationPublisher.publish(key)));
+    }
+
+    public Mono<Void> evictCardNumber(String number) {
+        return numberKey(number).flatMap(this::delete);
+    }
+
+    public Mono<Void> clearMissing(String id) {
+        return namespace.key("missing:" + id).flatMap(this::delete);
+    }
+
+    private Mono<CardResponseDto> read(String key) {
+        return redisTemplate.createMono(connection -> connection.stringCommands().get(ReactiveCacheFence.buffer(key)))
+                .mapNotNull(value -> redisTemplate.getSerializationContext().getValueSerializationPair().read(value));
+    }
+
+    private Mono<Void> delete(String key) {
+        return ReactiveCacheFence.nowAndAfterCommit(fence.raise(List.of(key))
+                .then(stringRedisTemplate.delete(key))
+                .then(invalidationPublisher.publish(key)));
+    }
+
+    private ByteBuffer serialize(CardResponseDto card) {
+        return redisTemplate.getSerializationContext().getValueSerializationPair().write(card);
+    }
+
+    private Mono<String> numberKey(String number) {
+        return namespace.key("number:" + number);
+    }
+
+    private Mono<String> userCardsKey(String userId) {
+        return namespace.key("user:" + userId);
+    }
+}
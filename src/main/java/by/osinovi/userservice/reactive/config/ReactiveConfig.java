@@ -0,0 +1,60 @@
+package by.osinovi.userservice.reactive.config;
+
+import by.osinovi.userservice.config.RedisCacheConfig;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.TransactionManagementConfigurer;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * The R2DBC transaction manager sits next to the JPA one in this profile, so the
+     * blocking {@code @Transactional} services keep resolving to JPA by default.
+     */
+    @Bean
+    public TransactionManagementConfigurer jpaTransactionManagementConfigurer(
+            ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return transactionManager::getObject;
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, UserResponseDto> userReactiveRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory,
+            @Value("${cache.users.codec:json}") String codec) {
+        return template(connectionFactory, RedisCacheConfig.userSerializer(codec));
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, CardResponseDto> cardReactiveRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory,
+            @Value("${cache.cards.codec:json}") String codec) {
+        return template(connectionFactory, RedisCacheConfig.cardSerializer(codec));
+    }
+
+    private static <T> ReactiveRedisTemplate<String, T> template(ReactiveRedisConnectionFactory connectionFactory,
+                                                                 RedisSerializer<T> serializer) {
+        RedisSerializationContext<String, T> context = RedisSerializationContext
+                .<String, T>newSerializationContext(RedisSerializer.string())
+                .value(serializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
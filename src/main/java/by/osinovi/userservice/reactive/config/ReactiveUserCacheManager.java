@@ -0,0 +1,114 @@
+package by.osinovi.userservice.reactive.config;
+
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@Profile("reactive")
+public class ReactiveUserCacheManager {
+
+    private static final String CACHE_PREFIX = "users::";
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private final ReactiveRedisTemplate<String, UserResponseDto> redisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final ReactiveCacheInvalidationPublisher invalidationPublisher;
+    private final ReactiveCacheNamespace namespace;
+    private final ReactiveCacheFence fence;
+
+    public ReactiveUserCacheManager(ReactiveRedisTemplate<String, UserResponseDto> userReactiveRedisTemplate,
+                                    ReactiveStringRedisTemplate stringRedisTemplate,
+                                    ReactiveCacheInvalidationPublisher invalidationPublisher) {
+        this.redisTemplate = userReactiveRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.namespace = new ReactiveCacheNamespace(CACHE_PREFIX, stringRedisTemplate);
+        this.fence = new ReactiveCacheFence(CACHE_PREFIX, stringRedisTemplate, DEFAULT_TTL);
+    }
+
+    public Mono<UserResponseDto> getUserById(String id) {
+        return idKey(id).flatMap(key -> read(key));
+    }
+
+    public Mono<UserResponseDto> getUserByEmail(String email) {
+        return emailKey(email)
+                .flatMap(key -> stringRedisTemplate.opsForValue().get(key))
+                .flatMap(this::getUserById);
+    }
+
+    public Mono<Long> fillTicket() {
+        return fence.ticket();
+    }
+
+    public Mono<Void> cacheUser(String id, String email, UserResponseDto user) {
+        Mono<Void> write = keys(id, email).flatMap(keys -> fence.raise(keys)
+                .then(redisTemplate.opsForValue().set(keys.get(0), user, DEFAULT_TTL))
+                .then(keys.size() > 1 ? stringRedisTemplate.opsForValue().set(keys.get(1), id, DEFAULT_TTL) : Mono.just(true))
+                .thenMany(Flux.fromIterable(keys))
+                .concatMap(invalidationPublisher::publish)
+                .then());
+        return ReactiveCacheFence.nowAndAfterCommit(write);
+    }
+
+    public Mono<Void> fillUser(String id, String email, UserResponseDto user, long ticket) {
+        return keys(id, email).flatMap(keys -> {
+            ByteBuffer value = redisTemplate.getSerializationContext().getValueSerializationPair().write(user);
+            Mono<Boolean> byId = fence.fill(keys.get(0), value, DEFAULT_TTL, ticket);
+            if (keys.size() == 1) {
+                return byId.then();
+            }
+            return byId.then(fence.fill(keys.get(1), ReactiveCacheFence.buffer(id), DEFAULT_TTL, ticket)).then();
+        });
+    }
+
+    public Mono<Void> evictUser(String id, String email) {
+        Mono<Void> byId = id == null ? Mono.empty() : idKey(id).flatMap(this::delete).then(evictUserBody(id));
+        Mono<Void> byEmail = email == null ? Mono.empty() : emailKey(email).flatMap(this::delete);
+        return byId.then(byEmail);
+    }
+
+    public Mono<Void> evictUserBody(String id) {
+        return namespace.key("body:" + id).flatMap(this::delete);
+    }
+
+    public Mono<Void> clearMissing(String id, String email) {
+        Mono<Void> byId = id == null ? Mono.empty() : namespace.key("missing:id:" + id).flatMap(this::delete);
+        Mono<Void> byEmail = email == null ? Mono.empty() : namespace.key("missing:email:" + email).flatMap(this::delete);
+        return byId.then(byEmail);
+    }
+
+    private Mono<UserResponseDto> read(String key) {
+        return redisTemplate.createMono(connection -> connection.stringCommands().get(ReactiveCacheFence.buffer(key)))
+                .mapNotNull(value -> redisTemplate.getSerializationContext().getValueSerializationPair().read(value));
+    }
+
+    private Mono<Void> delete(String key) {
+        return ReactiveCacheFence.nowAndAfterCommit(fence.raise(List.of(key))
+                .then(stringRedisTemplate.delete(key))
+                .then(invalidationPublisher.publish(key)));
+    }
+
+    private Mono<List<String>> keys(String id, String email) {
+        if (email == null) {
+            return idKey(id).map(List::of);
+        }
+        return idKey(id).zipWith(emailKey(email), List::of);
+    }
+
+    private Mono<String> idKey(String id) {
+        return namespace.key("id:" + id);
+    }
+
+    private Mono<String> emailKey(String email) {
+        return namespace.key("email:" + email);
+    }
+}
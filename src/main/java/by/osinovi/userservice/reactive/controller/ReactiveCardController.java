@@ -0,0 +1,59 @@
+package by.osinovi.userservice.reactive.controller;
+
+import by.osinovi.userservice.controller.ETags;
+import by.osinovi.userservice.dto.card.CardRequestDto;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.reactive.service.ReactiveCardService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/cards")
+@RequiredArgsConstructor
+public class ReactiveCardController {
+    private final ReactiveCardService cardService;
+
+    @PostMapping("/user/{userId}")
+    public Mono<ResponseEntity<CardResponseDto>> createCard(@PathVariable String userId, @Valid @RequestBody CardRequestDto cardRequestDto) {
+        return cardService.createCard(userId, cardRequestDto).map(card -> ResponseEntity.status(HttpStatus.CREATED).body(card));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CardResponseDto>> getCardById(@PathVariable String id) {
+        return cardService.getCardById(id)
+                .map(card -> ResponseEntity.status(HttpStatus.OK).eTag(ETags.forCard(card)).body(card));
+    }
+
+    @GetMapping("/by-number")
+    public Mono<ResponseEntity<CardResponseDto>> getCardByNumber(@RequestParam String number) {
+        return cardService.getCardByNumber(number).map(card -> ResponseEntity.status(HttpStatus.OK).body(card));
+    }
+
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<List<CardResponseDto>>> getCardsByUserId(@PathVariable String userId) {
+        return cardService.getCardsByUserId(userId)
+                .map(cards -> ResponseEntity.status(HttpStatus.OK).eTag(ETags.forCards(cards)).body(cards));
+    }
+
+    @PutMapping("/{id}/user/{userId}")
+    public Mono<ResponseEntity<CardResponseDto>> updateCard(@PathVariable String id, @PathVariable String userId,
+                                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                            @Valid @RequestBody CardRequestDto cardRequestDto) {
+        return Mono.defer(() -> cardService.updateCard(id, userId, cardRequestDto, ETags.expectedVersion(ifMatch)))
+                .map(card -> ResponseEntity.status(HttpStatus.OK).eTag(ETags.forCard(card)).body(card));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCard(@PathVariable String id) {
+        return cardService.deleteCard(id).then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.NO_CONTENT).build()));
+    }
+}
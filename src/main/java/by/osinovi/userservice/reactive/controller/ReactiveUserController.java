@@ -0,0 +1,65 @@
+package by.osinovi.userservice.reactive.controller;
+
+import by.osinovi.userservice.controller.ETags;
+import by.osinovi.userservice.dto.user.UserPageResponseDto;
+import by.osinovi.userservice.dto.user.UserRequestDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.reactive.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    private final ReactiveUserService userService;
+
+    @PostMapping
+    public Mono<ResponseEntity<UserResponseDto>> createUser(@Valid @RequestBody UserRequestDto userRequestDto) {
+        return userService.createUser(userRequestDto).map(user -> ResponseEntity.status(HttpStatus.CREATED).body(user));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> getUserById(@PathVariable String id) {
+        return userService.getUserById(id)
+                .map(user -> ResponseEntity.status(HttpStatus.OK).eTag(ETags.forUser(user)).body(user));
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<List<UserResponseDto>>> getUsersByIds(@RequestParam List<String> ids) {
+        return userService.getUsersByIds(ids).map(users -> ResponseEntity.status(HttpStatus.OK).body(users));
+    }
+
+    @GetMapping(params = "!ids")
+    public Mono<ResponseEntity<UserPageResponseDto>> getUsers(@RequestParam(required = false) Long cursor,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        return userService.getUsers(cursor, size).map(page -> ResponseEntity.status(HttpStatus.OK).body(page));
+    }
+
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<UserResponseDto>> getUserByEmail(@PathVariable String email) {
+        return userService.getUserByEmail(email).map(user -> ResponseEntity.status(HttpStatus.OK).body(user));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> updateUser(@PathVariable String id,
+                                                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                            @Valid @RequestBody UserRequestDto userRequestDto) {
+        return Mono.defer(() -> userService.updateUser(id, userRequestDto, ETags.expectedVersion(ifMatch)))
+                .map(user -> ResponseEntity.status(HttpStatus.OK).eTag(ETags.forUser(user)).body(user));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable String id) {
+        return userService.deleteUser(id).then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.NO_CONTENT).build()));
+    }
+}
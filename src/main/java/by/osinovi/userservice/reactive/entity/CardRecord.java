@@ -0,0 +1,32 @@
+package by.osinovi.userservice.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Table("card_info")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardRecord {
+    @Id
+    private Long id;
+
+    private Long userId;
+
+    private String number;
+
+    private String holder;
+
+    private LocalDate expirationDate;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,32 @@
+package by.osinovi.userservice.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Table("users")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRecord {
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String surname;
+
+    private LocalDate birthDate;
+
+    private String email;
+
+    @Version
+    private Long version;
+}
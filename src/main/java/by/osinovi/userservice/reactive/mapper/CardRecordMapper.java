@@ -0,0 +1,12 @@
+package by.osinovi.userservice.reactive.mapper;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.reactive.entity.CardRecord;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface CardRecordMapper {
+
+    CardResponseDto toDto(CardRecord record);
+}
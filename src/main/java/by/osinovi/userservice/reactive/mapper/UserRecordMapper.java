@@ -0,0 +1,19 @@
+package by.osinovi.userservice.reactive.mapper;
+
+import by.osinovi.userservice.dto.user.UserRequestDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.reactive.entity.UserRecord;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface UserRecordMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    UserRecord toRecord(UserRequestDto dto);
+
+    @Mapping(target = "cards", expression = "java(new java.util.ArrayList<>())")
+    UserResponseDto toDto(UserRecord record);
+}
@@ -0,0 +1,30 @@
+package by.osinovi.userservice.reactive.repository;
+
+import by.osinovi.userservice.reactive.entity.CardRecord;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ReactiveCardRepository extends R2dbcRepository<CardRecord, Long> {
+
+    Flux<CardRecord> findByUserIdOrderById(Long userId);
+
+    @Query("INSERT INTO card_info (id, user_id, number, holder, expiration_date) "
+            + "SELECT :id, u.id, :number, :holder, :expirationDate FROM users u "
+            + "WHERE u.id = :userId AND upper(u.name || ' ' || u.surname) = upper(trim(:holder)) "
+            + "RETURNING id")
+    Mono<Long> insertForOwner(@Param("id") Long id,
+                              @Param("userId") Long userId,
+                              @Param("number") String number,
+                              @Param("holder") String holder,
+                              @Param("expirationDate") LocalDate expirationDate);
+
+    @Query("SELECT l.card_id FROM card_number_lookup l WHERE l.number = :number")
+    Mono<Long> findIdByNumber(@Param("number") String number);
+}
@@ -0,0 +1,59 @@
+package by.osinovi.userservice.reactive.repository;
+
+import by.osinovi.userservice.repository.PooledIdAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out ids from the same pooled sequences as {@link PooledIdAllocator}, one block of
+ * {@link PooledIdAllocator#BLOCK_SIZE} per {@code nextval}, instead of letting each insert take
+ * the column default and burn a whole block on a single row.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactivePooledIdAllocator {
+
+    private final DatabaseClient databaseClient;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public Mono<Long> next(String sequence) {
+        Block block = blocks.computeIfAbsent(sequence, key -> new Block());
+        Long id = block.take();
+        if (id != null) {
+            return Mono.just(id);
+        }
+        return databaseClient.sql("SELECT nextval('" + sequence + "')")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(block::adopt);
+    }
+
+    private static final class Block {
+        private long next = 1;
+        private long high;
+
+        synchronized Long take() {
+            return next <= high ? next++ : null;
+        }
+
+        /**
+         * Returns the first id of a freshly fetched block and keeps the rest, unless another
+         * caller refilled the block in the meantime, in which case the remainder is dropped.
+         */
+        synchronized long adopt(long newHigh) {
+            long first = Math.max(1, newHigh - PooledIdAllocator.BLOCK_SIZE + 1);
+            if (next > high) {
+                next = first + 1;
+                high = newHigh;
+            }
+            return first;
+        }
+    }
+}
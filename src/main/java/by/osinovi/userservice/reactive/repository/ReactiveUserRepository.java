@@ -0,0 +1,31 @@
+package by.osinovi.userservice.reactive.repository;
+
+import by.osinovi.userservice.reactive.entity.UserRecord;
+import by.osinovi.userservice.repository.projection.UserCardRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRecord, Long> {
+    String USER_CARD_ROWS = "SELECT u.id, u.name, u.surname, u.birth_date, u.email, c.id AS card_id, "
+            + "c.number AS card_number, c.holder AS card_holder, c.expiration_date AS card_expiration_date, "
+            + "u.version, c.version AS card_version "
+            + "FROM users u LEFT JOIN card_info c ON c.user_id = u.id ";
+
+    @Query(USER_CARD_ROWS + "WHERE u.id = :id ORDER BY c.id")
+    Flux<UserCardRow> findRowsById(@Param("id") Long id);
+
+    @Query(USER_CARD_ROWS + "WHERE u.email = :email ORDER BY c.id")
+    Flux<UserCardRow> findRowsByEmail(@Param("email") String email);
+
+    @Query(USER_CARD_ROWS + "WHERE u.id IN (:ids) ORDER BY u.id, c.id")
+    Flux<UserCardRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT id FROM users WHERE id > :after ORDER BY id LIMIT :limit")
+    Flux<Long> findIdsAfter(@Param("after") Long after, @Param("limit") int limit);
+}
@@ -0,0 +1,21 @@
+package by.osinovi.userservice.reactive.service;
+
+import by.osinovi.userservice.dto.card.CardRequestDto;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveCardService {
+    Mono<CardResponseDto> createCard(String userId, CardRequestDto cardRequestDto);
+
+    Mono<CardResponseDto> getCardById(String id);
+
+    Mono<CardResponseDto> getCardByNumber(String number);
+
+    Mono<List<CardResponseDto>> getCardsByUserId(String userId);
+
+    Mono<CardResponseDto> updateCard(String id, String userId, CardRequestDto cardRequestDto, Long expectedVersion);
+
+    Mono<Void> deleteCard(String id);
+}
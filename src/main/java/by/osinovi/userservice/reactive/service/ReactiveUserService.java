@@ -0,0 +1,24 @@
+package by.osinovi.userservice.reactive.service;
+
+import by.osinovi.userservice.dto.user.UserPageResponseDto;
+import by.osinovi.userservice.dto.user.UserRequestDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveUserService {
+    Mono<UserResponseDto> createUser(UserRequestDto userRequestDto);
+
+    Mono<UserResponseDto> getUserById(String id);
+
+    Mono<UserResponseDto> getUserByEmail(String email);
+
+    Mono<List<UserResponseDto>> getUsersByIds(List<String> ids);
+
+    Mono<UserPageResponseDto> getUsers(Long cursor, int size);
+
+    Mono<UserResponseDto> updateUser(String id, UserRequestDto userRequestDto, Long expectedVersion);
+
+    Mono<Void> deleteUser(String id);
+}
@@ -0,0 +1,176 @@
+package by.osinovi.userservice.reactive.service.impl;
+
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.dto.card.CardRequestDto;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.exception.CardNotFoundException;
+import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.PreconditionFailedException;
+import by.osinovi.userservice.exception.UserNotFoundException;
+import by.osinovi.userservice.reactive.config.ReactiveCardCacheManager;
+import by.osinovi.userservice.reactive.config.ReactiveUserCacheManager;
+import by.osinovi.userservice.reactive.mapper.CardRecordMapper;
+import by.osinovi.userservice.reactive.repository.ReactiveCardRepository;
+import by.osinovi.userservice.reactive.repository.ReactivePooledIdAllocator;
+import by.osinovi.userservice.reactive.repository.ReactiveUserRepository;
+import by.osinovi.userservice.reactive.service.ReactiveCardService;
+import by.osinovi.userservice.repository.PooledIdAllocator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCardServiceImpl implements ReactiveCardService {
+    private final ReactiveCardRepository cardRepository;
+    private final ReactiveUserRepository userRepository;
+    private final CardRecordMapper cardRecordMapper;
+    private final ReactiveCardCacheManager cardCacheManager;
+    private final ReactiveUserCacheManager userCacheManager;
+    private final ReactivePooledIdAllocator idAllocator;
+    private final IdExistenceFilter idExistenceFilter;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<CardResponseDto> createCard(String userId, CardRequestDto cardRequestDto) {
+        return idAllocator.next(PooledIdAllocator.CARD_SEQUENCE)
+                .flatMap(id -> cardRepository.insertForOwner(id, Long.valueOf(userId), cardRequestDto.getNumber(),
+                        cardRequestDto.getHolder(), cardRequestDto.getExpirationDate()))
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new InvalidInputException("Card with number " + cardRequestDto.getNumber() + " already exists"))
+                .switchIfEmpty(Mono.defer(() -> rejectedInsert(userId, cardRequestDto)))
+                .flatMap(id -> {
+                    CardResponseDto response = new CardResponseDto(id, cardRequestDto.getNumber(),
+                            cardRequestDto.getHolder(), cardRequestDto.getExpirationDate(), Integer.valueOf(userId), 0L);
+                    return Mono.fromRunnable(() -> idExistenceFilter.addCard(id))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .then(cardCacheManager.clearMissing(String.valueOf(id)))
+                            .then(cardCacheManager.cacheCard(String.valueOf(id), response))
+                            .then(cardCacheManager.evictCardsByUserId(userId))
+                            .then(userCacheManager.evictUser(userId, null))
+                            .thenReturn(response);
+                });
+    }
+
+    private Mono<Long> rejectedInsert(String userId, CardRequestDto cardRequestDto) {
+        return userRepository.findById(Long.valueOf(userId))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User with id " + userId + " not found")))
+                .flatMap(user -> {
+                    String fullName = user.getName() + " " + user.getSurname();
+                    if (!cardRequestDto.getHolder().trim().equalsIgnoreCase(fullName)) {
+                        return Mono.error(new InvalidInputException("Holder must match the user's full name: " + fullName));
+                    }
+                    return Mono.error(new InvalidInputException("Card for user " + userId + " was not created"));
+                });
+    }
+
+    @Override
+    public Mono<CardResponseDto> getCardById(String id) {
+        return cardCacheManager.getCard(id)
+                .switchIfEmpty(Mono.defer(() -> cardCacheManager.fillTicket()
+                        .flatMap(ticket -> cardRepository.findById(Long.valueOf(id))
+                                .switchIfEmpty(Mono.error(() -> new CardNotFoundException("Card with id " + id + " not found")))
+                                .map(cardRecordMapper::toDto)
+                                .flatMap(card -> cardCacheManager.fillCard(id, card, ticket).thenReturn(card)))));
+    }
+
+    @Override
+    public Mono<CardResponseDto> getCardByNumber(String number) {
+        if (number == null || !number.matches("\\d{16}")) {
+            return Mono.error(new InvalidInputException("Card number must contain 16 digits"));
+        }
+        Mono<CardResponseDto> fromDatabase = Mono.defer(() -> cardCacheManager.fillTicket()
+                .flatMap(ticket -> cardRepository.findIdByNumber(number)
+                        .switchIfEmpty(Mono.error(() -> new CardNotFoundException("Card with number " + number + " not found")))
+                        .map(String::valueOf)
+                        .flatMap(id -> cardCacheManager.fillCardNumber(number, id, ticket).then(getCardById(id)))));
+        return cardCacheManager.getCardIdByNumber(number)
+                .flatMap(this::getCardById)
+                .flatMap(card -> number.equals(card.getNumber())
+                        ? Mono.just(card)
+                        : cardCacheManager.evictCardNumber(number).then(Mono.<CardResponseDto>empty()))
+                .onErrorResume(CardNotFoundException.class,
+                        e -> cardCacheManager.evictCardNumber(number).then(Mono.empty()))
+                .switchIfEmpty(fromDatabase);
+    }
+
+    @Override
+    public Mono<List<CardResponseDto>> getCardsByUserId(String userId) {
+        return cardCacheManager.getCardsByUserId(userId)
+                .switchIfEmpty(Mono.defer(() -> cardCacheManager.fillTicket()
+                        .flatMap(ticket -> cardRepository.findByUserIdOrderById(Long.valueOf(userId))
+                                .map(cardRecordMapper::toDto)
+                                .collectList()
+                                .flatMap(cards -> cardCacheManager.fillCardsByUserId(userId, cards, ticket).thenReturn(cards)))))
+                .flatMap(cards -> cards.isEmpty()
+                        ? Mono.error(new CardNotFoundException("No cards found for userId " + userId))
+                        : Mono.just(cards));
+    }
+
+    @Override
+    public Mono<CardResponseDto> updateCard(String id, String userId, CardRequestDto cardRequestDto, Long expectedVersion) {
+        return userRepository.findById(Long.valueOf(userId))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User with id " + userId + " not found")))
+                .zipWith(cardRepository.findById(Long.valueOf(id))
+                        .switchIfEmpty(Mono.error(() -> new CardNotFoundException("Card with id " + id + " not found"))))
+                .flatMap(pair -> {
+                    var user = pair.getT1();
+                    var existingCard = pair.getT2();
+                    if (expectedVersion != null && !expectedVersion.equals(existingCard.getVersion())) {
+                        return Mono.error(new PreconditionFailedException(
+                                "Card with id " + id + " has version " + existingCard.getVersion()));
+                    }
+                    String fullName = user.getName().toUpperCase() + " " + user.getSurname().toUpperCase();
+                    if (!cardRequestDto.getHolder().trim().equalsIgnoreCase(fullName)) {
+                        return Mono.error(new InvalidInputException("Holder must match the user's full name: " + fullName));
+                    }
+
+                    String previousUserId = String.valueOf(existingCard.getUserId());
+                    String previousNumber = existingCard.getNumber();
+                    existingCard.setNumber(cardRequestDto.getNumber());
+                    existingCard.setHolder(cardRequestDto.getHolder());
+                    existingCard.setExpirationDate(cardRequestDto.getExpirationDate());
+                    existingCard.setUserId(user.getId());
+                    return cardRepository.save(existingCard)
+                            .onErrorMap(DataIntegrityViolationException.class,
+                                    e -> new InvalidInputException("Card with number " + cardRequestDto.getNumber() + " already exists"))
+                            .map(cardRecordMapper::toDto)
+                            .flatMap(response -> {
+                                Mono<Void> evictions = cardCacheManager.cacheCard(id, response)
+                                        .then(cardCacheManager.evictCardsByUserId(userId))
+                                        .then(userCacheManager.evictUser(userId, user.getEmail()));
+                                if (!previousNumber.equals(response.getNumber())) {
+                                    evictions = evictions.then(cardCacheManager.evictCardNumber(previousNumber));
+                                }
+                                if (!previousUserId.equals(userId)) {
+                                    evictions = evictions.then(cardCacheManager.evictCardsByUserId(previousUserId))
+                                            .then(userCacheManager.evictUser(previousUserId, null));
+                                }
+                                return evictions.thenReturn(response);
+                            });
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> deleteCard(String id) {
+        return cardRepository.findById(Long.valueOf(id))
+                .switchIfEmpty(Mono.error(() -> new CardNotFoundException("Card with id " + id + " not found")))
+                .flatMap(card -> {
+                    String userId = String.valueOf(card.getUserId());
+                    return cardCacheManager.evictCard(id)
+                            .then(cardCacheManager.evictCardNumber(card.getNumber()))
+                            .then(cardCacheManager.evictCardsByUserId(userId))
+                            .then(userCacheManager.evictUser(userId, null))
+                            .then(cardRepository.delete(card));
+                })
+                .as(transactionalOperator::transactional);
+    }
+}
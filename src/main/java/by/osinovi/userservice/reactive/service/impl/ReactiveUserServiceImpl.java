@@ -0,0 +1,191 @@
+package by.osinovi.userservice.reactive.service.impl;
+
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.dto.user.UserPageResponseDto;
+import by.osinovi.userservice.dto.user.UserRequestDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.PreconditionFailedException;
+import by.osinovi.userservice.exception.UserNotFoundException;
+import by.osinovi.userservice.mapper.UserMapper;
+import by.osinovi.userservice.reactive.config.ReactiveCardCacheManager;
+import by.osinovi.userservice.reactive.config.ReactiveUserCacheManager;
+import by.osinovi.userservice.reactive.entity.CardRecord;
+import by.osinovi.userservice.reactive.entity.UserRecord;
+import by.osinovi.userservice.reactive.mapper.UserRecordMapper;
+import by.osinovi.userservice.reactive.repository.ReactiveCardRepository;
+import by.osinovi.userservice.reactive.repository.ReactivePooledIdAllocator;
+import by.osinovi.userservice.reactive.repository.ReactiveUserRepository;
+import by.osinovi.userservice.reactive.service.ReactiveUserService;
+import by.osinovi.userservice.repository.PooledIdAllocator;
+import by.osinovi.userservice.repository.projection.UserCardRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveCardRepository cardRepository;
+    private final UserRecordMapper userRecordMapper;
+    private final UserMapper userMapper;
+    private final ReactiveUserCacheManager userCacheManager;
+    private final ReactiveCardCacheManager cardCacheManager;
+    private final ReactivePooledIdAllocator idAllocator;
+    private final IdExistenceFilter idExistenceFilter;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<UserResponseDto> createUser(UserRequestDto userRequestDto) {
+        return idAllocator.next(PooledIdAllocator.USER_SEQUENCE)
+                .flatMap(id -> {
+                    UserRecord record = userRecordMapper.toRecord(userRequestDto);
+                    record.setId(id);
+                    return userRepository.save(record);
+                })
+                .onErrorMap(DataIntegrityViolationException.class,
+                        e -> new InvalidInputException("Email " + userRequestDto.getEmail() + " already exists"))
+                .map(userRecordMapper::toDto)
+                .flatMap(user -> {
+                    String id = String.valueOf(user.getId());
+                    return Mono.fromRunnable(() -> idExistenceFilter.addUser(user.getId()))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .then(userCacheManager.clearMissing(id, user.getEmail()))
+                            .then(userCacheManager.cacheUser(id, user.getEmail(), user))
+                            .thenReturn(user);
+                });
+    }
+
+    @Override
+    public Mono<UserResponseDto> getUserById(String id) {
+        return userCacheManager.getUserById(id)
+                .switchIfEmpty(Mono.defer(() -> loadUser(userRepository.findRowsById(Long.valueOf(id)),
+                        "User with id " + id + " not found")));
+    }
+
+    @Override
+    public Mono<UserResponseDto> getUserByEmail(String email) {
+        return userCacheManager.getUserByEmail(email)
+                .switchIfEmpty(Mono.defer(() -> loadUser(userRepository.findRowsByEmail(email),
+                        "User with email " + email + " not found")));
+    }
+
+    @Override
+    public Mono<List<UserResponseDto>> getUsersByIds(List<String> ids) {
+        List<String> requestedIds = ids.stream().map(Long::valueOf).distinct().map(String::valueOf).toList();
+        return loadUsers(requestedIds).flatMap(found -> {
+            if (found.isEmpty()) {
+                return Mono.error(new UserNotFoundException("No users found with IDs " + String.join(", ", ids)));
+            }
+            return Mono.just(requestedIds.stream().map(found::get).filter(Objects::nonNull).toList());
+        });
+    }
+
+    @Override
+    public Mono<UserPageResponseDto> getUsers(Long cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return Mono.error(new InvalidInputException("Page size must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        return userRepository.findIdsAfter(cursor != null ? cursor : 0L, size + 1)
+                .collectList()
+                .flatMap(pageIds -> {
+                    boolean hasMore = pageIds.size() > size;
+                    List<String> requestedIds = pageIds.stream().limit(size).map(String::valueOf).toList();
+                    return loadUsers(requestedIds).map(found -> {
+                        List<UserResponseDto> users = requestedIds.stream().map(found::get).filter(Objects::nonNull).toList();
+                        Long nextCursor = hasMore ? Long.valueOf(requestedIds.get(requestedIds.size() - 1)) : null;
+                        return new UserPageResponseDto(users, nextCursor);
+                    });
+                });
+    }
+
+    @Override
+    public Mono<UserResponseDto> updateUser(String id, UserRequestDto userRequestDto, Long expectedVersion) {
+        return userRepository.findById(Long.valueOf(id))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User with id " + id + " not found")))
+                .flatMap(existingUser -> {
+                    if (expectedVersion != null && !expectedVersion.equals(existingUser.getVersion())) {
+                        return Mono.error(new PreconditionFailedException(
+                                "User with id " + id + " has version " + existingUser.getVersion()));
+                    }
+                    String oldEmail = existingUser.getEmail();
+                    existingUser.setName(userRequestDto.getName());
+                    existingUser.setSurname(userRequestDto.getSurname());
+                    existingUser.setBirthDate(userRequestDto.getBirthDate());
+                    existingUser.setEmail(userRequestDto.getEmail());
+                    return userRepository.save(existingUser)
+                            .onErrorMap(DataIntegrityViolationException.class,
+                                    e -> new InvalidInputException("Email " + userRequestDto.getEmail() + " already exists"))
+                            .flatMap(saved -> userRepository.findRowsById(saved.getId()).collectList())
+                            .map(rows -> userMapper.toDtos(rows).get(0))
+                            .flatMap(user -> {
+                                Mono<Void> caching = oldEmail.equals(user.getEmail())
+                                        ? userCacheManager.cacheUser(id, null, user)
+                                        : userCacheManager.evictUser(null, oldEmail)
+                                        .then(userCacheManager.clearMissing(null, user.getEmail()))
+                                        .then(userCacheManager.cacheUser(id, user.getEmail(), user));
+                                return userCacheManager.evictUserBody(id).then(caching).thenReturn(user);
+                            });
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> deleteUser(String id) {
+        return userRepository.findById(Long.valueOf(id))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException("User with id " + id + " not found")))
+                .flatMap(user -> cardRepository.findByUserIdOrderById(user.getId())
+                        .collectMap(card -> String.valueOf(card.getId()), CardRecord::getNumber)
+                        .flatMap(cardNumbersById -> userCacheManager.evictUser(id, user.getEmail())
+                                .then(cardCacheManager.evictCardsOfUser(id, cardNumbersById)))
+                        .then(userRepository.delete(user)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<UserResponseDto> loadUser(Flux<UserCardRow> rows, String notFoundMessage) {
+        return userCacheManager.fillTicket().flatMap(ticket -> rows.collectList().flatMap(list -> {
+            List<UserResponseDto> users = userMapper.toDtos(list);
+            if (users.isEmpty()) {
+                return Mono.error(new UserNotFoundException(notFoundMessage));
+            }
+            UserResponseDto user = users.get(0);
+            return userCacheManager.fillUser(String.valueOf(user.getId()), user.getEmail(), user, ticket).thenReturn(user);
+        }));
+    }
+
+    private Mono<Map<String, UserResponseDto>> loadUsers(List<String> requestedIds) {
+        return Flux.fromIterable(requestedIds)
+                .flatMap(userCacheManager::getUserById)
+                .collectMap(user -> String.valueOf(user.getId()))
+                .flatMap(cached -> {
+                    Map<String, UserResponseDto> found = new HashMap<>(cached);
+                    List<Long> missingIds = requestedIds.stream()
+                            .filter(id -> !found.containsKey(id))
+                            .map(Long::valueOf)
+                            .toList();
+                    if (missingIds.isEmpty()) {
+                        return Mono.just(found);
+                    }
+                    return userCacheManager.fillTicket().flatMap(ticket -> userRepository.findRowsByIdIn(missingIds).collectList()
+                            .flatMapMany(rows -> Flux.fromIterable(userMapper.toDtos(rows)))
+                            .concatMap(user -> userCacheManager.fillUser(String.valueOf(user.getId()), user.getEmail(), user, ticket)
+                                    .thenReturn(user))
+                            .doOnNext(user -> found.put(String.valueOf(user.getId()), user))
+                            .then(Mono.just(found)));
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package by.osinovi.userservice.repository;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class CardBatchInserter {
+
+    private static final String INSERT_CARD =
+            "INSERT INTO card_info (id, user_id, number, holder, expiration_date) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the cards behind a savepoint, so a failed batch leaves the surrounding transaction
+     * usable and the caller can retry without the conflicting rows.
+     */
+    public void insert(List<CardResponseDto> cards) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CARD)) {
+                for (CardResponseDto card : cards) {
+                    statement.setLong(1, card.getId());
+                    statement.setLong(2, card.getUserId().longValue());
+                    statement.setString(3, card.getNumber());
+                    statement.setString(4, card.getHolder());
+                    statement.setDate(5, Date.valueOf(card.getExpirationDate()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+}
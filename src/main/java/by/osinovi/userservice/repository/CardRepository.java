@@ -1,22 +1,53 @@
 package by.osinovi.userservice.repository;
 
+import by.osinovi.userservice.dto.card.CardResponseDto;
 import by.osinovi.userservice.entity.Card;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Integer> {
+    String CARD_DTO = "SELECT new by.osinovi.userservice.dto.card.CardResponseDto("
+            + "c.id, c.number, c.holder, c.expirationDate, cast(c.user.id as Integer), c.version) FROM Card c ";
+
     Optional<Card> findById(Long id);
 
-    @Query("SELECT c FROM Card c WHERE c.user.id = :userId")
-    List<Card> findCardsByUserId(@Param("userId") Long userId);
+    @Query(CARD_DTO + "WHERE c.id = :id")
+    Optional<CardResponseDto> findDtoById(@Param("id") Long id);
+
+    @Query(CARD_DTO + "WHERE c.user.id = :userId ORDER BY c.id")
+    List<CardResponseDto> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query(value = "INSERT INTO card_info (id, user_id, number, holder, expiration_date) "
+            + "SELECT :id, u.id, :number, :holder, :expirationDate FROM users u "
+            + "WHERE u.id = :userId AND upper(u.name || ' ' || u.surname) = upper(trim(:holder)) "
+            + "RETURNING id", nativeQuery = true)
+    Optional<Long> insertForOwner(@Param("id") Long id,
+                                  @Param("userId") Long userId,
+                                  @Param("number") String number,
+                                  @Param("holder") String holder,
+                                  @Param("expirationDate") LocalDate expirationDate);
+
+    @Query(value = "SELECT l.card_id FROM card_number_lookup l WHERE l.number = :number", nativeQuery = true)
+    Optional<Long> findIdByNumber(@Param("number") String number);
+
+    @Query(value = "SELECT number FROM card_number_lookup WHERE number IN (:numbers)", nativeQuery = true)
+    List<String> findExistingNumbers(@Param("numbers") Collection<String> numbers);
 
-    boolean existsByNumber(String number);
+    @Query("SELECT c.id FROM Card c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Long> streamAllIds();
 
     void deleteById(Long id);
 }
@@ -0,0 +1,63 @@
+package by.osinovi.userservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@RequiredArgsConstructor
+public class PooledIdAllocator {
+
+    public static final String USER_SEQUENCE = "users_id_seq";
+    public static final String CARD_SEQUENCE = "card_info_id_seq";
+    public static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public long next(String sequence) {
+        Block block = blocks.computeIfAbsent(sequence, key -> new Block());
+        block.lock.lock();
+        try {
+            while (block.next > block.high) {
+                long high = nextHighValues(sequence, 1).get(0);
+                block.next = Math.max(1, high - BLOCK_SIZE + 1);
+                block.high = high;
+            }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    public List<Long> allocate(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int needed = (count - ids.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            for (Long high : nextHighValues(sequence, needed)) {
+                for (long id = high - BLOCK_SIZE + 1; id <= high && ids.size() < count; id++) {
+                    if (id > 0) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> nextHighValues(String sequence, int count) {
+        return jdbcTemplate.queryForList("SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long high;
+    }
+}
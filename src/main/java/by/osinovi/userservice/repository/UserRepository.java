@@ -1,22 +1,45 @@
 package by.osinovi.userservice.repository;
 
 import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.repository.projection.UserCardRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
+    String USER_CARD_ROWS = "SELECT new by.osinovi.userservice.repository.projection.UserCardRow("
+            + "u.id, u.name, u.surname, u.birthDate, u.email, c.id, c.number, c.holder, c.expirationDate, u.version, c.version) "
+            + "FROM User u LEFT JOIN u.cards c ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findById(Long id);
 
-    Optional<User> findUserByEmail(String email);
+    @Query(USER_CARD_ROWS + "WHERE u.id = :id ORDER BY c.id")
+    List<UserCardRow> findRowsById(@Param("id") Long id);
+
+    @Query(USER_CARD_ROWS + "WHERE u.email = :email ORDER BY c.id")
+    List<UserCardRow> findRowsByEmail(@Param("email") String email);
+
+    @Query(USER_CARD_ROWS + "WHERE u.id IN :ids ORDER BY u.id, c.id")
+    List<UserCardRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :after ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
 
-    @Query(value = "SELECT * FROM users WHERE id in :ids", nativeQuery = true)
-    List<User> findUserByIdIn(@Param("ids") List<Long> ids);
+    @Query("SELECT u.id FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Long> streamAllIds();
 
     void deleteById(Long id);
 }
@@ -0,0 +1,16 @@
+package by.osinovi.userservice.repository.projection;
+
+import java.time.LocalDate;
+
+public record UserCardRow(Long id,
+                          String name,
+                          String surname,
+                          LocalDate birthDate,
+                          String email,
+                          Long cardId,
+                          String cardNumber,
+                          String cardHolder,
+                          LocalDate cardExpirationDate,
+                          Long version,
+                          Long cardVersion) {
+}
@@ -1,5 +1,6 @@
 package by.osinovi.userservice.service;
 
+import by.osinovi.userservice.dto.card.CardBatchResultDto;
 import by.osinovi.userservice.dto.card.CardRequestDto;
 import by.osinovi.userservice.dto.card.CardResponseDto;
 
@@ -8,11 +9,15 @@ import java.util.List;
 public interface CardService {
     CardResponseDto createCard(String userId, CardRequestDto cardRequestDto);
 
+    CardBatchResultDto createCards(String userId, List<CardRequestDto> cardRequestDtos);
+
     CardResponseDto getCardById(String id);
 
+    CardResponseDto getCardByNumber(String number);
+
     List<CardResponseDto> getCardsByUserId(String id);
 
-    CardResponseDto updateCard(String id, String userId, CardRequestDto cardRequestDto);
+    CardResponseDto updateCard(String id, String userId, CardRequestDto cardRequestDto, Long expectedVersion);
 
     void deleteCard(String id);
 }
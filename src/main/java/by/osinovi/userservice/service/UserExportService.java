@@ -0,0 +1,8 @@
+package by.osinovi.userservice.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+    void exportUsers(Long afterId, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,12 @@
+package by.osinovi.userservice.service;
+
+import by.osinovi.userservice.dto.user.UserImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+    UserImportResultDto importNdjson(InputStream inputStream) throws IOException;
+
+    UserImportResultDto importCsv(InputStream inputStream) throws IOException;
+}
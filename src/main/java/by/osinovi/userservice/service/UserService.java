@@ -1,6 +1,7 @@
 package by.osinovi.userservice.service;
 
 
+import by.osinovi.userservice.dto.user.UserPageResponseDto;
 import by.osinovi.userservice.dto.user.UserRequestDto;
 import by.osinovi.userservice.dto.user.UserResponseDto;
 
@@ -13,9 +14,11 @@ public interface UserService {
 
     List<UserResponseDto> getUsersByIds(List<String> ids);
 
+    UserPageResponseDto getUsers(Long cursor, int size);
+
     UserResponseDto getUserByEmail(String email);
 
-    UserResponseDto updateUser(String id, UserRequestDto userRequestDto);
+    UserResponseDto updateUser(String id, UserRequestDto userRequestDto, Long expectedVersion);
 
     void deleteUser(String id);
 }
@@ -1,92 +1,287 @@
 package by.osinovi.userservice.service.impl;
 
+import by.osinovi.userservice.dto.card.CardBatchItemDto;
+import by.osinovi.userservice.dto.card.CardBatchResultDto;
 import by.osinovi.userservice.dto.card.CardRequestDto;
 import by.osinovi.userservice.dto.card.CardResponseDto;
 import by.osinovi.userservice.entity.Card;
 import by.osinovi.userservice.entity.User;
 import by.osinovi.userservice.exception.CardNotFoundException;
 import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.PreconditionFailedException;
 import by.osinovi.userservice.exception.UserNotFoundException;
 import by.osinovi.userservice.mapper.CardMapper;
+import by.osinovi.userservice.repository.CardBatchInserter;
 import by.osinovi.userservice.repository.CardRepository;
+import by.osinovi.userservice.repository.PooledIdAllocator;
 import by.osinovi.userservice.repository.UserRepository;
+import by.osinovi.userservice.config.CacheLoadCoalescer;
+import by.osinovi.userservice.config.CacheWriteBehind;
 import by.osinovi.userservice.config.CardCacheManager;
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.config.SecondLevelCacheEvictor;
 import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.config.datasource.ReadYourWritesTracker;
 import by.osinovi.userservice.service.CardService;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CardServiceImpl implements CardService {
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final CardRepository cardRepository;
     private final CardMapper cardMapper;
     private final UserRepository userRepository;
     private final CardCacheManager cardCacheManager;
     private final UserCacheManager userCacheManager;
+    private final CacheLoadCoalescer loadCoalescer;
+    private final IdExistenceFilter idExistenceFilter;
+    private final CacheWriteBehind cacheWriteBehind;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final PooledIdAllocator idAllocator;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final CardBatchInserter cardBatchInserter;
+    private final Validator validator;
+
+    @PostConstruct
+    void registerRefreshAhead() {
+        cardCacheManager.onRefreshAhead(id -> {
+            long ticket = cardCacheManager.fillTicket();
+            Optional<CardResponseDto> row = cardRepository.findDtoById(Long.valueOf(id));
+            boolean fromReplica = readYourWritesTracker.readFromReplica();
+            row.ifPresent(card -> cardCacheManager.fillCard(id, card, ticket, fromReplica));
+        });
+    }
 
     @Override
     @Transactional
     public CardResponseDto createCard(String userId, CardRequestDto cardRequestDto) {
+        Long id = idAllocator.next(PooledIdAllocator.CARD_SEQUENCE);
+        try {
+            cardRepository.insertForOwner(id, Long.valueOf(userId), cardRequestDto.getNumber(),
+                            cardRequestDto.getHolder(), cardRequestDto.getExpirationDate())
+                    .orElseThrow(() -> rejectedInsert(userId, cardRequestDto));
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidInputException("Card with number " + cardRequestDto.getNumber() + " already exists");
+        }
+
+        idExistenceFilter.addCard(id);
+        secondLevelCacheEvictor.evictUserCards(Long.valueOf(userId));
+        CardResponseDto response = new CardResponseDto(id, cardRequestDto.getNumber(), cardRequestDto.getHolder(),
+                cardRequestDto.getExpirationDate(), Integer.valueOf(userId), 0L);
+        cardCacheManager.clearMissing(String.valueOf(id));
+        cardCacheManager.cacheCard(String.valueOf(id), response);
+        cardCacheManager.evictCardsByUserId(userId);
+        userCacheManager.evictUser(userId, null);
+        return response;
+    }
+
+    @Override
+    @Transactional
+    public CardBatchResultDto createCards(String userId, List<CardRequestDto> cardRequestDtos) {
+        if (cardRequestDtos == null || cardRequestDtos.isEmpty()) {
+            throw new InvalidInputException("Batch must contain at least one card");
+        }
+        if (cardRequestDtos.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException("Batch must contain at most " + MAX_BATCH_SIZE + " cards");
+        }
         User user = userRepository.findById(Long.valueOf(userId))
                 .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
+        String fullName = user.getName() + " " + user.getSurname();
 
-        if (cardRepository.existsByNumber(cardRequestDto.getNumber())) {
-            throw new InvalidInputException("Card with number " + cardRequestDto.getNumber() + " already exists");
+        String[] errors = new String[cardRequestDtos.size()];
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < cardRequestDtos.size(); i++) {
+            CardRequestDto card = cardRequestDtos.get(i);
+            errors[i] = validate(card);
+            if (errors[i] != null) {
+                continue;
+            }
+            if (!card.getHolder().trim().equalsIgnoreCase(fullName)) {
+                errors[i] = "Holder must match the user's full name: " + fullName;
+            } else if (!numbers.add(card.getNumber())) {
+                errors[i] = "Duplicate card number " + card.getNumber() + " in batch";
+            }
         }
+        Set<String> existingNumbers = numbers.isEmpty() ? Set.of() : new HashSet<>(cardRepository.findExistingNumbers(numbers));
 
-        String fullName = user.getName() + " " + user.getSurname();
-        String holder = cardRequestDto.getHolder().trim();
-        if (!holder.equalsIgnoreCase(fullName)) {
-            throw new InvalidInputException("Holder must match the user's full name: " + fullName);
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < cardRequestDtos.size(); i++) {
+            if (errors[i] == null && existingNumbers.contains(cardRequestDtos.get(i).getNumber())) {
+                errors[i] = "Card with number " + cardRequestDtos.get(i).getNumber() + " already exists";
+            } else if (errors[i] == null) {
+                acceptedIndexes.add(i);
+            }
         }
 
-        Card card = cardMapper.toEntity(cardRequestDto);
-        card.setUser(user);
-        cardRepository.save(card);
-        CardResponseDto response = cardMapper.toDto(card);
-        cardCacheManager.cacheCard(String.valueOf(card.getId()), response);
-        userCacheManager.evictUser(userId, user.getEmail());
-        return response;
+        List<Long> ids = acceptedIndexes.isEmpty() ? List.of()
+                : idAllocator.allocate(PooledIdAllocator.CARD_SEQUENCE, acceptedIndexes.size());
+        CardResponseDto[] created = new CardResponseDto[cardRequestDtos.size()];
+        Map<String, Integer> indexByNumber = new HashMap<>();
+        for (int i = 0; i < acceptedIndexes.size(); i++) {
+            CardRequestDto card = cardRequestDtos.get(acceptedIndexes.get(i));
+            created[acceptedIndexes.get(i)] = new CardResponseDto(ids.get(i), card.getNumber(), card.getHolder(),
+                    card.getExpirationDate(), Integer.valueOf(userId), 0L);
+            indexByNumber.put(card.getNumber(), acceptedIndexes.get(i));
+        }
+        List<CardResponseDto> inserted = insertSkippingTakenNumbers(created, errors, indexByNumber);
+        if (!inserted.isEmpty()) {
+            idExistenceFilter.addCards(inserted.stream().map(CardResponseDto::getId).toList());
+            secondLevelCacheEvictor.evictUserCards(Long.valueOf(userId));
+            cardCacheManager.cacheNewCards(inserted);
+            cardCacheManager.evictCardsByUserId(userId);
+            userCacheManager.evictUser(userId, user.getEmail());
+        }
+
+        List<CardBatchItemDto> items = new ArrayList<>(cardRequestDtos.size());
+        for (int i = 0; i < cardRequestDtos.size(); i++) {
+            items.add(new CardBatchItemDto(i, created[i] != null, created[i], errors[i]));
+        }
+        return new CardBatchResultDto(inserted.size(), cardRequestDtos.size() - inserted.size(), items);
+    }
+
+    /**
+     * A card created concurrently between the existence check and the insert fails the whole batch
+     * statement. The numbers are then looked up again, the ones now taken are reported as duplicates
+     * and the rest are inserted again.
+     */
+    private List<CardResponseDto> insertSkippingTakenNumbers(CardResponseDto[] created, String[] errors,
+                                                             Map<String, Integer> indexByNumber) {
+        while (!indexByNumber.isEmpty()) {
+            List<CardResponseDto> pending = indexByNumber.values().stream().sorted().map(i -> created[i]).toList();
+            try {
+                cardBatchInserter.insert(pending);
+                return pending;
+            } catch (DataIntegrityViolationException e) {
+                List<String> taken = cardRepository.findExistingNumbers(indexByNumber.keySet());
+                if (taken.isEmpty()) {
+                    throw new InvalidInputException("Cards conflict with concurrently created cards: "
+                            + e.getMostSpecificCause().getMessage());
+                }
+                for (String number : taken) {
+                    int index = indexByNumber.remove(number);
+                    created[index] = null;
+                    errors[index] = "Card with number " + number + " already exists";
+                }
+            }
+        }
+        return List.of();
+    }
+
+    private String validate(CardRequestDto card) {
+        if (card == null) {
+            return "Card is required";
+        }
+        Set<ConstraintViolation<CardRequestDto>> violations = validator.validate(card);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private RuntimeException rejectedInsert(String userId, CardRequestDto cardRequestDto) {
+        User user = userRepository.findById(Long.valueOf(userId)).orElse(null);
+        if (user == null) {
+            return new UserNotFoundException("User with id " + userId + " not found");
+        }
+        String fullName = user.getName() + " " + user.getSurname();
+        if (!cardRequestDto.getHolder().trim().equalsIgnoreCase(fullName)) {
+            return new InvalidInputException("Holder must match the user's full name: " + fullName);
+        }
+        return new InvalidInputException("Card for user " + userId + " was not created");
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CardResponseDto getCardById(String id) {
         CardResponseDto cached = cardCacheManager.getCard(id);
         if (cached != null) {
             return cached;
         }
-        Card card = cardRepository.findById(Long.valueOf(id))
-                .orElseThrow(() -> new CardNotFoundException("Card with id " + id + " not found"));
-        CardResponseDto response = cardMapper.toDto(card);
-        cardCacheManager.cacheCard(id, response);
-        return response;
+        if (idExistenceFilter.isDefinitelyAbsentCard(Long.valueOf(id)) || cardCacheManager.isCardMissing(id)) {
+            throw new CardNotFoundException("Card with id " + id + " not found");
+        }
+        return loadCoalescer.load("cards::" + id, () -> cardCacheManager.getCard(id), () -> {
+            long ticket = cardCacheManager.fillTicket();
+            Optional<CardResponseDto> row = cardRepository.findDtoById(Long.valueOf(id));
+            boolean fromReplica = readYourWritesTracker.readFromReplica();
+            CardResponseDto response = row.orElseThrow(() -> {
+                cardCacheManager.markCardMissing(id, ticket, fromReplica);
+                return new CardNotFoundException("Card with id " + id + " not found");
+            });
+            cacheWriteBehind.execute("cards::" + id, () -> cardCacheManager.fillCard(id, response, ticket, fromReplica));
+            return response;
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CardResponseDto getCardByNumber(String number) {
+        if (number == null || !number.matches("\\d{16}")) {
+            throw new InvalidInputException("Card number must contain 16 digits");
+        }
+        String cachedId = cardCacheManager.getCardIdByNumber(number);
+        if (cachedId != null) {
+            CardResponseDto card = getCardById(cachedId);
+            if (number.equals(card.getNumber())) {
+                return card;
+            }
+            cardCacheManager.evictCardNumber(number);
+        }
+        long ticket = cardCacheManager.fillTicket();
+        String id = String.valueOf(cardRepository.findIdByNumber(number)
+                .orElseThrow(() -> new CardNotFoundException("Card with number " + number + " not found")));
+        boolean fromReplica = readYourWritesTracker.readFromReplica();
+        cacheWriteBehind.execute("cards::number:" + number,
+                () -> cardCacheManager.fillCardNumber(number, id, ticket, fromReplica));
+        return getCardById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CardResponseDto> getCardsByUserId(String userId) {
-        List<Card> cards = cardRepository.findCardsByUserId(Long.valueOf(userId));
+        List<CardResponseDto> cards = cardCacheManager.getCardsByUserId(userId)
+                .orElseGet(() -> loadCoalescer.load("cards::user:" + userId,
+                        () -> cardCacheManager.getCardsByUserId(userId).orElse(null),
+                        () -> {
+                            long ticket = cardCacheManager.fillTicket();
+                            List<CardResponseDto> loaded = cardRepository.findDtosByUserId(Long.valueOf(userId));
+                            boolean fromReplica = readYourWritesTracker.readFromReplica();
+                            cacheWriteBehind.execute("cards::user:" + userId,
+                                    () -> cardCacheManager.fillCardsByUserId(userId, loaded, ticket, fromReplica));
+                            return loaded;
+                        }));
         if (cards.isEmpty()) {
             throw new CardNotFoundException("No cards found for userId " + userId);
         }
-        return cards.stream().map(cardMapper::toDto).toList();
+        return cards;
     }
 
     @Override
     @Transactional
-    public CardResponseDto updateCard(String id, String userId, CardRequestDto cardRequestDto) {
+    public CardResponseDto updateCard(String id, String userId, CardRequestDto cardRequestDto, Long expectedVersion) {
         User user = userRepository.findById(Long.valueOf(userId))
                 .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
         Card existingCard = cardRepository.findById(Long.valueOf(id))
                 .orElseThrow(() -> new CardNotFoundException("Card with id " + id + " not found"));
-
-        if (!existingCard.getNumber().equals(cardRequestDto.getNumber()) &&
-                cardRepository.existsByNumber(cardRequestDto.getNumber())) {
-            throw new IllegalArgumentException("Card with number " + cardRequestDto.getNumber() + " already exists");
+        if (expectedVersion != null && !expectedVersion.equals(existingCard.getVersion())) {
+            throw new PreconditionFailedException("Card with id " + id + " has version " + existingCard.getVersion());
         }
 
         String fullName = user.getName().toUpperCase() + " " + user.getSurname().toUpperCase();
@@ -95,15 +290,29 @@ public class CardServiceImpl implements CardService {
             throw new InvalidInputException("Holder must match the user's full name: " + fullName);
         }
 
+        String previousUserId = String.valueOf(existingCard.getUser().getId());
+        String previousNumber = existingCard.getNumber();
         Card updatedCard = cardMapper.toEntity(cardRequestDto);
         existingCard.setNumber(updatedCard.getNumber());
         existingCard.setHolder(updatedCard.getHolder());
         existingCard.setExpirationDate(updatedCard.getExpirationDate());
         existingCard.setUser(user);
-        cardRepository.save(existingCard);
+        try {
+            cardRepository.saveAndFlush(existingCard);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidInputException("Card with number " + cardRequestDto.getNumber() + " already exists");
+        }
         CardResponseDto response = cardMapper.toDto(existingCard);
         cardCacheManager.cacheCard(id, response);
+        cardCacheManager.evictCardsByUserId(userId);
         userCacheManager.evictUser(userId, user.getEmail());
+        if (!previousNumber.equals(existingCard.getNumber())) {
+            cardCacheManager.evictCardNumber(previousNumber);
+        }
+        if (!previousUserId.equals(userId)) {
+            cardCacheManager.evictCardsByUserId(previousUserId);
+            userCacheManager.evictUser(previousUserId, null);
+        }
         return response;
     }
 
@@ -113,6 +322,8 @@ public class CardServiceImpl implements CardService {
         Card card = cardRepository.findById(Long.valueOf(id))
                 .orElseThrow(() -> new CardNotFoundException("Card with id " + id + " not found"));
         cardCacheManager.evictCard(id);
+        cardCacheManager.evictCardNumber(card.getNumber());
+        cardCacheManager.evictCardsByUserId(String.valueOf(card.getUser().getId()));
         userCacheManager.evictUser(String.valueOf(card.getUser().getId()), String.valueOf(card.getUser().getEmail()));
         cardRepository.delete(card);
     }
@@ -0,0 +1,106 @@
+package by.osinovi.userservice.service.impl;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.service.UserExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+@Service
+@Slf4j
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final String EXPORT_QUERY = """
+            SELECT u.id, u.name, u.surname, u.birth_date, u.email, u.version,
+                   c.id AS card_id, c.number, c.holder, c.expiration_date, c.version AS card_version
+            FROM users u
+            LEFT JOIN card_info c ON c.user_id = u.id
+            WHERE u.id > ?
+            ORDER BY u.id, c.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public UserExportServiceImpl(DataSource dataSource,
+                                 ObjectMapper objectMapper,
+                                 @Value("${export.users.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Long afterId, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        UserRowWriter writer = new UserRowWriter(generator);
+        try {
+            jdbcTemplate.query(EXPORT_QUERY, writer, afterId != null ? afterId : 0L);
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            generator.close();
+        }
+        log.info("Exported {} users after id {}", writer.count, afterId);
+    }
+
+    private static class UserRowWriter implements RowCallbackHandler {
+
+        private final JsonGenerator generator;
+        private UserResponseDto current;
+        private long count;
+
+        UserRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long userId = rs.getLong("id");
+            if (current == null || current.getId() != userId) {
+                finish();
+                Date birthDate = rs.getDate("birth_date");
+                current = new UserResponseDto(userId, rs.getString("name"), rs.getString("surname"),
+                        birthDate != null ? birthDate.toLocalDate() : null, rs.getString("email"), new ArrayList<>(),
+                        rs.getLong("version"));
+            }
+            long cardId = rs.getLong("card_id");
+            if (!rs.wasNull()) {
+                current.getCards().add(new CardResponseDto(cardId, rs.getString("number"), rs.getString("holder"),
+                        rs.getDate("expiration_date").toLocalDate(), (int) userId, rs.getLong("card_version")));
+            }
+        }
+
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                generator.writeObject(current);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package by.osinovi.userservice.service.impl;
+
+import by.osinovi.userservice.config.CardCacheManager;
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.config.SecondLevelCacheEvictor;
+import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.dto.card.CardRequestDto;
+import by.osinovi.userservice.dto.user.UserImportErrorDto;
+import by.osinovi.userservice.dto.user.UserImportRecordDto;
+import by.osinovi.userservice.dto.user.UserImportResultDto;
+import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.repository.PooledIdAllocator;
+import by.osinovi.userservice.service.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final char CSV_SEPARATOR = ',';
+    private static final char CSV_QUOTE = '"';
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("name", "surname", "email");
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, name, surname, birth_date, email) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_CARD =
+            "INSERT INTO card_info (id, user_id, number, holder, expiration_date) VALUES (?, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final IdExistenceFilter idExistenceFilter;
+    private final UserCacheManager userCacheManager;
+    private final CardCacheManager cardCacheManager;
+    private final PooledIdAllocator idAllocator;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final int chunkSize;
+
+    public UserImportServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 IdExistenceFilter idExistenceFilter,
+                                 UserCacheManager userCacheManager,
+                                 CardCacheManager cardCacheManager,
+                                 PooledIdAllocator idAllocator,
+                                 SecondLevelCacheEvictor secondLevelCacheEvictor,
+                                 @Value("${import.users.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.idExistenceFilter = idExistenceFilter;
+        this.userCacheManager = userCacheManager;
+        this.cardCacheManager = cardCacheManager;
+        this.idAllocator = idAllocator;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public UserImportResultDto importNdjson(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.accept(lineNumber, objectMapper.readValue(line, UserImportRecordDto.class));
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    @Override
+    public UserImportResultDto importCsv(InputStream inputStream) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return run.finish();
+        }
+        List<String> names = parseCsvRecord(header);
+        if (names == null) {
+            throw new InvalidInputException("CSV header has an unterminated quoted field");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_CSV_COLUMNS)) {
+            throw new InvalidInputException("CSV header must contain columns " + String.join(", ", REQUIRED_CSV_COLUMNS));
+        }
+
+        UserImportRecordDto pending = null;
+        long pendingLine = 0;
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            long recordLine = lineNumber;
+            List<String> values = parseCsvRecord(line);
+            String next;
+            while (values == null && (next = reader.readLine()) != null) {
+                lineNumber++;
+                line = line + "\n" + next;
+                values = parseCsvRecord(line);
+            }
+            if (values == null) {
+                run.reject(recordLine, "Unterminated quoted field");
+                break;
+            }
+            try {
+                String email = column(values, columns, "email");
+                CardRequestDto card = column(values, columns, "cardNumber") == null ? null : new CardRequestDto(
+                        column(values, columns, "cardNumber"),
+                        column(values, columns, "cardHolder"),
+                        parseDate(column(values, columns, "cardExpirationDate")));
+                if (pending == null || !Objects.equals(pending.getEmail(), email)) {
+                    UserImportRecordDto record = new UserImportRecordDto();
+                    record.setName(column(values, columns, "name"));
+                    record.setSurname(column(values, columns, "surname"));
+                    record.setBirthDate(parseDate(column(values, columns, "birthDate")));
+                    record.setEmail(email);
+                    if (pending != null) {
+                        run.accept(pendingLine, pending);
+                    }
+                    pending = record;
+                    pendingLine = recordLine;
+                }
+                if (card != null) {
+                    pending.getCards().add(card);
+                }
+            } catch (DateTimeParseException e) {
+                run.reject(recordLine, "Invalid date: " + e.getParsedString());
+            }
+        }
+        if (pending != null) {
+            run.accept(pendingLine, pending);
+        }
+        return run.finish();
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one RFC 4180 record: fields may be quoted, quoted fields may contain separators,
+     * line breaks and doubled quotes. Returns null while a quoted field is still open, so the
+     * caller can append the next physical line and try again.
+     */
+    private static List<String> parseCsvRecord(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != CSV_QUOTE) {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == CSV_QUOTE) {
+                    field.append(CSV_QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == CSV_QUOTE) {
+                quoted = true;
+            } else if (c == CSV_SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value != null ? LocalDate.parse(value) : null;
+    }
+
+    private record PendingRow(long line, UserImportRecordDto record) {
+    }
+
+    private class ImportRun {
+
+        private final long startedAt = System.nanoTime();
+        private final List<PendingRow> chunk = new ArrayList<>();
+        private final Set<String> chunkEmails = new HashSet<>();
+        private final Set<String> chunkNumbers = new HashSet<>();
+        private final List<UserImportErrorDto> errors = new ArrayList<>();
+        private long importedUsers;
+        private long importedCards;
+        private long failed;
+
+        void accept(long line, UserImportRecordDto record) {
+            if (record.getCards() == null) {
+                record.setCards(new ArrayList<>());
+            }
+            String error = validate(record);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            if (chunkEmails.contains(record.getEmail())) {
+                reject(line, "Duplicate email " + record.getEmail() + " in import");
+                return;
+            }
+            Set<String> numbers = new HashSet<>();
+            for (CardRequestDto card : record.getCards()) {
+                if (chunkNumbers.contains(card.getNumber()) || !numbers.add(card.getNumber())) {
+                    reject(line, "Duplicate card number " + card.getNumber() + " in import");
+                    return;
+                }
+            }
+            chunkEmails.add(record.getEmail());
+            chunkNumbers.addAll(numbers);
+            chunk.add(new PendingRow(line, record));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UserImportErrorDto(line, error));
+            }
+        }
+
+        UserImportResultDto finish() {
+            flush();
+            if (importedUsers > 0) {
+                secondLevelCacheEvictor.evictQueryResults();
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+            long processed = importedUsers + failed;
+            double rowsPerSecond = elapsedNanos > 0 ? processed * 1_000_000_000.0 / elapsedNanos : 0;
+            log.info("Imported {} users and {} cards, {} rows failed, {} rows/sec",
+                    importedUsers, importedCards, failed, Math.round(rowsPerSecond));
+            return new UserImportResultDto(processed, importedUsers, importedCards, failed,
+                    elapsedNanos / 1_000_000, rowsPerSecond, errors);
+        }
+
+        private String validate(UserImportRecordDto record) {
+            Set<ConstraintViolation<UserImportRecordDto>> violations = validator.validate(record);
+            if (!violations.isEmpty()) {
+                return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+            }
+            String fullName = record.getName() + " " + record.getSurname();
+            for (CardRequestDto card : record.getCards()) {
+                if (!card.getHolder().trim().equalsIgnoreCase(fullName)) {
+                    return "Holder must match the user's full name: " + fullName;
+                }
+            }
+            return null;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Set<String> existingEmails = existing("SELECT email FROM users WHERE email IN (:values)", chunkEmails);
+            Set<String> existingNumbers = existing("SELECT number FROM card_number_lookup WHERE number IN (:values)", chunkNumbers);
+            List<PendingRow> accepted = new ArrayList<>();
+            for (PendingRow row : chunk) {
+                String duplicateNumber = row.record().getCards().stream()
+                        .map(CardRequestDto::getNumber)
+                        .filter(existingNumbers::contains)
+                        .findFirst()
+                        .orElse(null);
+                if (existingEmails.contains(row.record().getEmail())) {
+                    reject(row.line(), "Email " + row.record().getEmail() + " already exists");
+                } else if (duplicateNumber != null) {
+                    reject(row.line(), "Card with number " + duplicateNumber + " already exists");
+                } else {
+                    accepted.add(row);
+                }
+            }
+            chunk.clear();
+            chunkEmails.clear();
+            chunkNumbers.clear();
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            try {
+                insert(accepted);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch insert of {} users conflicted, retrying row by row", accepted.size());
+                for (PendingRow row : accepted) {
+                    try {
+                        insert(List.of(row));
+                    } catch (DataIntegrityViolationException ex) {
+                        reject(row.line(), "Conflicts with existing data: " + ex.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        private Set<String> existing(String sql, Collection<String> values) {
+            if (values.isEmpty()) {
+                return Set.of();
+            }
+            return new HashSet<>(jdbcTemplate.queryForList(sql, Map.of("values", values), String.class));
+        }
+
+        private void insert(List<PendingRow> rows) {
+            int cardCount = rows.stream().mapToInt(row -> row.record().getCards().size()).sum();
+            List<Long> userIds = idAllocator.allocate(PooledIdAllocator.USER_SEQUENCE, rows.size());
+            List<Long> cardIds = idAllocator.allocate(PooledIdAllocator.CARD_SEQUENCE, cardCount);
+
+            List<Object[]> userArgs = new ArrayList<>(rows.size());
+            List<Object[]> cardArgs = new ArrayList<>(cardCount);
+            for (int i = 0; i < rows.size(); i++) {
+                UserImportRecordDto record = rows.get(i).record();
+                Long userId = userIds.get(i);
+                userArgs.add(new Object[]{userId, record.getName(), record.getSurname(), record.getBirthDate(), record.getEmail()});
+                for (CardRequestDto card : record.getCards()) {
+                    cardArgs.add(new Object[]{cardIds.get(cardArgs.size()), userId, card.getNumber(),
+                            card.getHolder().trim(), card.getExpirationDate()});
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_USER, userArgs);
+                if (!cardArgs.isEmpty()) {
+                    jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_CARD, cardArgs);
+                }
+            });
+            importedUsers += rows.size();
+            importedCards += cardCount;
+            idExistenceFilter.addUsers(userIds);
+            idExistenceFilter.addCards(cardIds);
+            userCacheManager.clearMissing(userIds.stream().map(String::valueOf).toList(),
+                    rows.stream().map(row -> row.record().getEmail()).toList());
+            cardCacheManager.clearMissing(cardIds.stream().map(String::valueOf).toList());
+        }
+    }
+}
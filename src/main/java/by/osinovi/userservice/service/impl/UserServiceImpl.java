@@ -1,87 +1,178 @@
 package by.osinovi.userservice.service.impl;
 
+import by.osinovi.userservice.dto.user.UserPageResponseDto;
 import by.osinovi.userservice.dto.user.UserRequestDto;
 import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.entity.Card;
 import by.osinovi.userservice.entity.User;
 import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.PreconditionFailedException;
 import by.osinovi.userservice.exception.UserNotFoundException;
 import by.osinovi.userservice.mapper.UserMapper;
 import by.osinovi.userservice.repository.UserRepository;
+import by.osinovi.userservice.config.CacheLoadCoalescer;
+import by.osinovi.userservice.config.CacheWriteBehind;
+import by.osinovi.userservice.config.CardCacheManager;
+import by.osinovi.userservice.config.IdExistenceFilter;
 import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.config.datasource.ReadYourWritesTracker;
 import by.osinovi.userservice.service.UserService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserCacheManager userCacheManager;
+    private final CardCacheManager cardCacheManager;
+    private final CacheLoadCoalescer loadCoalescer;
+    private final IdExistenceFilter idExistenceFilter;
+    private final CacheWriteBehind cacheWriteBehind;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @PostConstruct
+    void registerRefreshAhead() {
+        userCacheManager.onRefreshAhead(id -> {
+            long ticket = userCacheManager.fillTicket();
+            List<UserResponseDto> rows = userMapper.toDtos(userRepository.findRowsById(Long.valueOf(id)));
+            boolean fromReplica = readYourWritesTracker.readFromReplica();
+            rows.stream()
+                    .findFirst()
+                    .ifPresent(user -> userCacheManager.fillUser(id, user.getEmail(), user, ticket, fromReplica));
+        });
+    }
 
     @Override
     @Transactional
     public UserResponseDto createUser(UserRequestDto userRequestDto) {
-        if (userRepository.findUserByEmail(userRequestDto.getEmail()).isPresent()) {
-            throw new InvalidInputException("Email " + userRequestDto.getEmail() + " already exists");
-        }
-
         User user = userMapper.toEntity(userRequestDto);
-        userRepository.save(user);
+        saveUniqueEmail(user);
+        idExistenceFilter.addUser(user.getId());
         UserResponseDto response = userMapper.toDto(user);
+        userCacheManager.clearMissing(String.valueOf(user.getId()), user.getEmail());
         userCacheManager.cacheUser(String.valueOf(user.getId()), user.getEmail(), response);
         return response;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponseDto getUserById(String id) {
         UserResponseDto cached = userCacheManager.getUserById(id);
         if (cached != null) {
             return cached;
         }
-        User user = userRepository.findById(Long.valueOf(id))
-                .orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
-        UserResponseDto response = userMapper.toDto(user);
-        userCacheManager.cacheUser(id, user.getEmail(), response);
-        return response;
+        if (idExistenceFilter.isDefinitelyAbsentUser(Long.valueOf(id)) || userCacheManager.isUserIdMissing(id)) {
+            throw new UserNotFoundException("User with id " + id + " not found");
+        }
+        return loadCoalescer.load("users::id:" + id, () -> userCacheManager.getUserById(id), () -> {
+            long ticket = userCacheManager.fillTicket();
+            List<UserResponseDto> rows = userMapper.toDtos(userRepository.findRowsById(Long.valueOf(id)));
+            boolean fromReplica = readYourWritesTracker.readFromReplica();
+            UserResponseDto response = rows.stream()
+                    .findFirst()
+                    .orElseThrow(() -> {
+                        userCacheManager.markUserIdMissing(id, ticket, fromReplica);
+                        return new UserNotFoundException("User with id " + id + " not found");
+                    });
+            cacheWriteBehind.execute("users::id:" + id,
+                    () -> userCacheManager.fillUser(id, response.getEmail(), response, ticket, fromReplica));
+            return response;
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponseDto getUserByEmail(String email) {
         UserResponseDto cached = userCacheManager.getUserByEmail(email);
         if (cached != null) {
             return cached;
         }
-        User user = userRepository.findUserByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User with email " + email + " not found"));
-        UserResponseDto response = userMapper.toDto(user);
-        userCacheManager.cacheUser(String.valueOf(user.getId()), email, response);
-        return response;
+        if (userCacheManager.isUserEmailMissing(email)) {
+            throw new UserNotFoundException("User with email " + email + " not found");
+        }
+        return loadCoalescer.load("users::email:" + email, () -> userCacheManager.getUserByEmail(email), () -> {
+            long ticket = userCacheManager.fillTicket();
+            List<UserResponseDto> rows = userMapper.toDtos(userRepository.findRowsByEmail(email));
+            boolean fromReplica = readYourWritesTracker.readFromReplica();
+            UserResponseDto response = rows.stream()
+                    .findFirst()
+                    .orElseThrow(() -> {
+                        userCacheManager.markUserEmailMissing(email, ticket, fromReplica);
+                        return new UserNotFoundException("User with email " + email + " not found");
+                    });
+            String id = String.valueOf(response.getId());
+            cacheWriteBehind.execute("users::email:" + email,
+                    () -> userCacheManager.fillUser(id, email, response, ticket, fromReplica));
+            return response;
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponseDto> getUsersByIds(List<String> ids) {
-        List<Long> longIds = ids.stream().map(Long::valueOf).toList();
-        List<User> users = userRepository.findUserByIdIn(longIds);
-        if (users.isEmpty()) {
+        List<String> requestedIds = ids.stream().map(Long::valueOf).distinct().map(String::valueOf).toList();
+        Map<String, UserResponseDto> found = loadUsers(requestedIds);
+
+        if (found.isEmpty()) {
             throw new UserNotFoundException("No users found with IDs " + String.join(", ", ids));
         }
-        return users.stream().map(userMapper::toDto).toList();
+        return requestedIds.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageResponseDto getUsers(Long cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Long> pageIds = userRepository.findIdsAfter(cursor != null ? cursor : 0L, Limit.of(size + 1));
+        boolean hasMore = pageIds.size() > size;
+        List<String> requestedIds = pageIds.stream().limit(size).map(String::valueOf).toList();
+        Map<String, UserResponseDto> found = loadUsers(requestedIds);
+
+        List<UserResponseDto> users = requestedIds.stream().map(found::get).filter(Objects::nonNull).toList();
+        Long nextCursor = hasMore ? Long.valueOf(requestedIds.get(requestedIds.size() - 1)) : null;
+        return new UserPageResponseDto(users, nextCursor);
+    }
+
+    private Map<String, UserResponseDto> loadUsers(List<String> requestedIds) {
+        Map<String, UserResponseDto> found = new HashMap<>(userCacheManager.getUsersByIds(requestedIds));
+
+        List<Long> missingIds = requestedIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .map(Long::valueOf)
+                .toList();
+        if (!missingIds.isEmpty()) {
+            long ticket = userCacheManager.fillTicket();
+            List<UserResponseDto> loaded = userMapper.toDtos(userRepository.findRowsByIdIn(missingIds));
+            boolean fromReplica = readYourWritesTracker.readFromReplica();
+            cacheWriteBehind.execute("users::ids", () -> userCacheManager.fillUsers(loaded, ticket, fromReplica));
+            loaded.forEach(user -> found.put(String.valueOf(user.getId()), user));
+        }
+        return found;
     }
 
     @Override
     @Transactional
-    public UserResponseDto updateUser(String id, UserRequestDto userRequestDto) {
+    public UserResponseDto updateUser(String id, UserRequestDto userRequestDto, Long expectedVersion) {
         User existingUser = userRepository.findById(Long.valueOf(id))
                 .orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
-
-        String newEmail = userRequestDto.getEmail();
-        if (!newEmail.equals(existingUser.getEmail()) && userRepository.findUserByEmail(newEmail).isPresent()) {
-            throw new InvalidInputException("Email " + newEmail + " already exists");
+        if (expectedVersion != null && !expectedVersion.equals(existingUser.getVersion())) {
+            throw new PreconditionFailedException("User with id " + id + " has version " + existingUser.getVersion());
         }
 
         String oldEmail = existingUser.getEmail();
@@ -90,22 +181,36 @@ public class UserServiceImpl implements UserService {
         existingUser.setSurname(updatedUser.getSurname());
         existingUser.setBirthDate(updatedUser.getBirthDate());
         existingUser.setEmail(updatedUser.getEmail());
-        userRepository.save(existingUser);
+        saveUniqueEmail(existingUser);
         UserResponseDto response = userMapper.toDto(existingUser);
-        userCacheManager.cacheUser(id, existingUser.getEmail(), response);
+        userCacheManager.evictUserBody(id);
         if (!oldEmail.equals(existingUser.getEmail())) {
-            userCacheManager.evictUser(id, oldEmail);
-            userCacheManager.cacheUser(id,null, response);
+            userCacheManager.evictUser(null, oldEmail);
+            userCacheManager.clearMissing(null, existingUser.getEmail());
+            userCacheManager.cacheUser(id, existingUser.getEmail(), response);
+        } else {
+            userCacheManager.cacheUser(id, null, response);
         }
         return response;
     }
 
+    private void saveUniqueEmail(User user) {
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidInputException("Email " + user.getEmail() + " already exists");
+        }
+    }
+
     @Override
     @Transactional
     public void deleteUser(String id) {
         User user = userRepository.findById(Long.valueOf(id))
                 .orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
+        Map<String, String> cardNumbersById = user.getCards().stream()
+                .collect(Collectors.toMap(card -> String.valueOf(card.getId()), Card::getNumber));
         userCacheManager.evictUser(id, user.getEmail());
+        cardCacheManager.evictCardsOfUser(id, cardNumbersById);
         userRepository.delete(user);
     }
 
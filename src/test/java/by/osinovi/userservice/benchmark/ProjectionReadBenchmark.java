@@ -0,0 +1,81 @@
+package by.osinovi.userservice.benchmark;
+
+import by.osinovi.userservice.entity.Card;
+import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import by.osinovi.userservice.mapper.UserMapper;
+import by.osinovi.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares entity hydration plus MapStruct mapping against the constructor-expression projection
+ * for a user read, by latency and bytes allocated per call.
+ * Run with: mvn test -Dtest=ProjectionReadBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionReadBenchmark extends BaseIntegrationTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareEntityAndProjectionReads() {
+        User user = new User();
+        user.setName("John");
+        user.setSurname("Doe");
+        user.setEmail("benchmark@example.com");
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        for (int i = 0; i < 3; i++) {
+            user.getCards().add(new Card(null, user, "411111111111111" + i, "JOHN DOE", LocalDate.of(2030, 12, 31), null));
+        }
+        Long id = userRepository.save(user).getId();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        System.out.printf("%-12s %14s %16s%n", "path", "us/op", "bytes/op");
+        report("entity", () -> readOnly.execute(status ->
+                (long) userMapper.toDto(userRepository.findById(id).orElseThrow()).getCards().size()));
+        report("projection", () -> readOnly.execute(status ->
+                (long) userMapper.toDtos(userRepository.findRowsById(id)).get(0).getCards().size()));
+    }
+
+    private static void report(String name, LongSupplier call) {
+        run(call, WARMUP_ITERATIONS);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        run(call, MEASURED_ITERATIONS);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-12s %14.1f %16d%n", name,
+                elapsed / 1_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static void run(LongSupplier call, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += call.getAsLong();
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
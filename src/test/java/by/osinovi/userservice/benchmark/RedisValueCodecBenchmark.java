@@ -0,0 +1,79 @@
+package by.osinovi.userservice.benchmark;
+
+import by.osinovi.userservice.config.codec.CardResponseDtoBinarySerializer;
+import by.osinovi.userservice.config.codec.UserResponseDtoBinarySerializer;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the JSON and binary Redis value codecs by encoded size and encode/decode time.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=by.osinovi.userservice.benchmark.RedisValueCodecBenchmark
+ */
+public class RedisValueCodecBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        Jackson2JsonRedisSerializer<UserResponseDto> userJson = new Jackson2JsonRedisSerializer<>(mapper, UserResponseDto.class);
+        Jackson2JsonRedisSerializer<CardResponseDto> cardJson = new Jackson2JsonRedisSerializer<>(mapper, CardResponseDto.class);
+
+        CardResponseDto card = card(1);
+        UserResponseDto user = user(3);
+
+        System.out.printf("%-28s %10s %14s %14s%n", "codec", "bytes", "encode ns/op", "decode ns/op");
+        report("CardResponseDto json", cardJson, card);
+        report("CardResponseDto binary", new CardResponseDtoBinarySerializer(cardJson), card);
+        report("UserResponseDto json", userJson, user);
+        report("UserResponseDto binary", new UserResponseDtoBinarySerializer(userJson), user);
+    }
+
+    private static <T> void report(String name, RedisSerializer<T> serializer, T value) {
+        byte[] encoded = serializer.serialize(value);
+        run(serializer, value, encoded, WARMUP_ITERATIONS);
+        long[] timings = run(serializer, value, encoded, MEASURED_ITERATIONS);
+        System.out.printf("%-28s %10d %14.1f %14.1f%n", name, encoded.length,
+                (double) timings[0] / MEASURED_ITERATIONS, (double) timings[1] / MEASURED_ITERATIONS);
+    }
+
+    private static <T> long[] run(RedisSerializer<T> serializer, T value, byte[] encoded, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.serialize(value).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.deserialize(encoded) != null ? 1 : 0;
+        }
+        long decodeNanos = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return new long[]{encodeNanos, decodeNanos};
+    }
+
+    private static CardResponseDto card(long id) {
+        return new CardResponseDto(id, "4111111111111111", "JOHN DOE", LocalDate.of(2030, 12, 31), 1, 0L);
+    }
+
+    private static UserResponseDto user(int cardCount) {
+        List<CardResponseDto> cards = new ArrayList<>();
+        for (int i = 0; i < cardCount; i++) {
+            cards.add(card(i + 1));
+        }
+        return new UserResponseDto(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com", cards, 0L);
+    }
+}
@@ -0,0 +1,130 @@
+package by.osinovi.userservice.benchmark;
+
+import by.osinovi.userservice.entity.Card;
+import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import by.osinovi.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Drives GET /api/users/{id} and GET /api/cards/user/{userId} through the real Tomcat connector with a
+ * fixed number of concurrent clients and reports throughput and p50/p99 latency. Run once per thread model:
+ * mvn test -Dtest=RequestLoadBenchmark -Dbenchmark=true -Dspring.threads.virtual.enabled=false
+ * mvn test -Dtest=RequestLoadBenchmark -Dbenchmark=true -Dspring.threads.virtual.enabled=true
+ * Optional: -Dbenchmark.concurrency=500 -Dbenchmark.requests=50000 -Djdk.tracePinnedThreads=short
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RequestLoadBenchmark extends BaseIntegrationTest {
+
+    private static final int USERS = 200;
+    private static final int CARDS_PER_USER = 3;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${benchmark.concurrency:500}")
+    private int concurrency;
+
+    @Value("${benchmark.requests:50000}")
+    private int requests;
+
+    @Test
+    void measureThroughputAndTailLatency() throws Exception {
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setName("Load");
+            user.setSurname("Test");
+            user.setEmail("load" + i + "@example.com");
+            user.setBirthDate(LocalDate.of(1990, 1, 1));
+            for (int c = 0; c < CARDS_PER_USER; c++) {
+                user.getCards().add(new Card(null, user, String.format("5%05d%010d", i, c), "LOAD TEST",
+                        LocalDate.of(2030, 12, 31), null));
+            }
+            userIds.add(userRepository.save(user).getId());
+        }
+
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        System.out.printf("thread model: %s, concurrency: %d, requests: %d%n",
+                virtualThreads ? "virtual" : "platform", concurrency, requests);
+        System.out.printf("%-24s %12s %10s %10s %8s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "errors");
+        IntFunction<URI> users = i -> URI.create("http://localhost:" + port + "/api/users/" + userIds.get(i % USERS));
+        IntFunction<URI> cards = i -> URI.create("http://localhost:" + port + "/api/cards/user/" + userIds.get(i % USERS));
+        run(client, users, requests / 10);
+        report("/api/users/{id}", client, users);
+        run(client, cards, requests / 10);
+        report("/api/cards/user/{userId}", client, cards);
+    }
+
+    private void report(String name, HttpClient client, IntFunction<URI> uris) throws Exception {
+        long start = System.nanoTime();
+        Result result = run(client, uris, requests);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("%-24s %12.0f %10.2f %10.2f %8d%n", name, requests / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), result.errors());
+    }
+
+    private Result run(HttpClient client, IntFunction<URI> uris, int total) throws Exception {
+        long[] latencies = new long[total];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+                        HttpRequest request = HttpRequest.newBuilder(uris.apply(i)).GET().build();
+                        long start = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, int errors) {
+    }
+}
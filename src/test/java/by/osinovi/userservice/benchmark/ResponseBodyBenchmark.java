@@ -0,0 +1,79 @@
+package by.osinovi.userservice.benchmark;
+
+import by.osinovi.userservice.config.CachedBody;
+import by.osinovi.userservice.config.codec.UserResponseDtoBinarySerializer;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the cost of a cache hit on GET /api/users/{id}: decoding the cached DTO and
+ * rendering it with Jackson against copying out pre-rendered (optionally gzipped) body bytes.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=by.osinovi.userservice.benchmark.ResponseBodyBenchmark
+ */
+public class ResponseBodyBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        UserResponseDtoBinarySerializer codec = new UserResponseDtoBinarySerializer(
+                new Jackson2JsonRedisSerializer<>(mapper, UserResponseDto.class));
+
+        System.out.printf("%-6s %-26s %10s %12s%n", "cards", "hit path", "bytes", "ns/op");
+        for (int cardCount : new int[]{0, 3, 20}) {
+            UserResponseDto user = user(cardCount);
+            byte[] cachedValue = codec.serialize(user);
+            byte[] json = mapper.writeValueAsBytes(user);
+            byte[] identity = new CachedBody("\"0\"", false, json).encode();
+            byte[] gzipped = CachedBody.of(json, "\"0\"", 0).encode();
+
+            report(cardCount, "decode dto + jackson", json.length, () -> mapper.writeValueAsBytes(codec.deserialize(cachedValue)).length);
+            report(cardCount, "cached body", json.length, () -> CachedBody.decode(identity).body().length);
+            report(cardCount, "cached body (gzip)", CachedBody.decode(gzipped).body().length,
+                    () -> CachedBody.decode(gzipped).body().length);
+        }
+    }
+
+    private static void report(int cardCount, String name, int bytes, HitPath path) throws Exception {
+        run(path, WARMUP_ITERATIONS);
+        long nanos = run(path, MEASURED_ITERATIONS);
+        System.out.printf("%-6d %-26s %10d %12.1f%n", cardCount, name, bytes, (double) nanos / MEASURED_ITERATIONS);
+    }
+
+    private static long run(HitPath path, int iterations) throws Exception {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += path.run();
+        }
+        long nanos = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return nanos;
+    }
+
+    private static UserResponseDto user(int cardCount) {
+        List<CardResponseDto> cards = new ArrayList<>();
+        for (int i = 0; i < cardCount; i++) {
+            cards.add(new CardResponseDto((long) i + 1, "4111111111111111", "JOHN DOE", LocalDate.of(2030, 12, 31), 1, 0L));
+        }
+        return new UserResponseDto(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com", cards, 0L);
+    }
+
+    @FunctionalInterface
+    private interface HitPath {
+        int run() throws Exception;
+    }
+}
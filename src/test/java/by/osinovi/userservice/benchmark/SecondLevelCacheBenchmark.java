@@ -0,0 +1,105 @@
+package by.osinovi.userservice.benchmark;
+
+import by.osinovi.userservice.entity.Card;
+import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import by.osinovi.userservice.mapper.UserMapper;
+import by.osinovi.userservice.repository.UserRepository;
+import by.osinovi.userservice.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares a user read served by the Redis DTO cache (L1 disabled) against the same read served
+ * by the Hibernate second-level entity, collection and query caches, and prints the region statistics.
+ * Run with: mvn test -Dtest=SecondLevelCacheBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@ActiveProfiles({"test", "l2cache"})
+@TestPropertySource(properties = "cache.users.local.maximum-size=0")
+class SecondLevelCacheBenchmark extends BaseIntegrationTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void compareRedisDtoCacheAndSecondLevelCache() {
+        User user = new User();
+        user.setName("John");
+        user.setSurname("Doe");
+        user.setEmail("l2-benchmark@example.com");
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        for (int i = 0; i < 3; i++) {
+            user.getCards().add(new Card(null, user, "422222222222222" + i, "JOHN DOE", LocalDate.of(2030, 12, 31), null));
+        }
+        Long id = userRepository.save(user).getId();
+        String userId = String.valueOf(id);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        System.out.printf("%-12s %14s%n", "path", "us/op");
+        report("redis-dto", () -> (long) userService.getUserById(userId).getCards().size());
+        statistics.clear();
+        report("hibernate-l2", () -> readOnly.execute(status ->
+                (long) userMapper.toDto(userRepository.findById(id).orElseThrow()).getCards().size()));
+
+        System.out.printf("%-40s %10s %10s %10s%n", "region", "hits", "misses", "puts");
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            System.out.printf("%-40s %10d %10d %10d%n", region, regionStatistics.getHitCount(),
+                    regionStatistics.getMissCount(), regionStatistics.getPutCount());
+        }
+        System.out.printf("%-40s %10d %10d %10d%n", "query cache (all regions)", statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+    }
+
+    private static void report(String name, LongSupplier call) {
+        run(call, WARMUP_ITERATIONS);
+        long start = System.nanoTime();
+        run(call, MEASURED_ITERATIONS);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-12s %14.1f%n", name, elapsed / 1_000.0 / MEASURED_ITERATIONS);
+    }
+
+    private static void run(LongSupplier call, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += call.getAsLong();
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package by.osinovi.userservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    @Test
+    void mightContain_InsertedValues_AlwaysTrue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).forEach(filter::put);
+
+        assertTrue(LongStream.rangeClosed(1, 10_000).allMatch(filter::mightContain));
+    }
+
+    @Test
+    void mightContain_AbsentValues_StaysNearConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).forEach(filter::put);
+
+        long falsePositives = LongStream.rangeClosed(10_001, 110_000).filter(filter::mightContain).count();
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void toBitmap_SetsRedisOffsetsOfInsertedValues() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        filter.put(42);
+
+        byte[] bitmap = filter.toBitmap();
+
+        assertEquals(filter.bitCount() / 8 + 1, bitmap.length);
+        long setBits = 0;
+        for (byte b : bitmap) {
+            setBits += Integer.bitCount(b & 0xFF);
+        }
+        assertEquals(Arrays.stream(filter.bitPositions(42)).distinct().count(), setBits);
+        for (long offset : filter.bitPositions(42)) {
+            assertTrue((bitmap[(int) (offset >>> 3)] & (0x80 >>> (offset & 7))) != 0, "offset " + offset);
+        }
+    }
+
+    @Test
+    void putBitmap_MergesBitsFromAnotherFilter() {
+        BloomFilter source = new BloomFilter(1_000, 0.01);
+        LongStream.rangeClosed(1, 1_000).forEach(source::put);
+        BloomFilter copy = new BloomFilter(1_000, 0.01);
+        copy.put(5_000);
+
+        copy.putBitmap(source.toBitmap());
+
+        assertTrue(LongStream.rangeClosed(1, 1_000).allMatch(copy::mightContain));
+        assertTrue(copy.mightContain(5_000));
+    }
+}
@@ -0,0 +1,63 @@
+package by.osinovi.userservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidationBusTests {
+
+    private final RedisMessageListenerContainer listenerContainer = mock(RedisMessageListenerContainer.class);
+    private final CacheInvalidationBus bus = new CacheInvalidationBus(mock(StringRedisTemplate.class), listenerContainer);
+
+    @Test
+    void publish_SeveralKeys_SendsOneMessage() {
+        RedisConnection connection = mock(RedisConnection.class);
+
+        bus.publish(connection, List.of("cards::v0::1", "cards::v0::missing:1"));
+
+        verify(connection, times(1)).publish(eq(bytes(CacheInvalidationBus.CHANNEL)), any(byte[].class));
+    }
+
+    @Test
+    void publish_NoKeys_SendsNothing() {
+        RedisConnection connection = mock(RedisConnection.class);
+
+        bus.publish(connection, List.of());
+
+        verify(connection, never()).publish(any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    void subscribe_BatchedMessageFromOtherNode_DispatchesEachMatchingKey() {
+        List<String> received = new ArrayList<>();
+        bus.subscribe("cards::", received::add);
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+
+        String payload = "other-node|cards::v0::1\nusers::v0::id:1\ncards::v0::missing:1";
+        listener.getValue().onMessage(new DefaultMessage(bytes(CacheInvalidationBus.CHANNEL), bytes(payload)), null);
+
+        assertEquals(List.of("cards::v0::1", "cards::v0::missing:1"), received);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package by.osinovi.userservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheNamespaceTests {
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private CacheNamespace namespace;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        namespace.close();
+    }
+
+    @Test
+    void key_RepeatedCalls_ReadGenerationOnce() {
+        when(valueOperations.get("users::generation")).thenReturn("4");
+        namespace = new CacheNamespace("users::", stringRedisTemplate, Duration.ofHours(1));
+
+        assertEquals("users::v4::id:1", namespace.key("id:1"));
+        assertEquals("users::v4::id:2", namespace.key("id:2"));
+
+        verify(valueOperations, times(1)).get("users::generation");
+    }
+
+    @Test
+    void key_NoStoredGeneration_StartsAtZero() {
+        namespace = new CacheNamespace("cards::", stringRedisTemplate, Duration.ofHours(1));
+
+        assertEquals("cards::v0::1", namespace.key("1"));
+    }
+
+    @Test
+    void bump_UsesIncrementedGenerationWithoutRereading() {
+        when(valueOperations.increment("users::generation")).thenReturn(5L);
+        namespace = new CacheNamespace("users::", stringRedisTemplate, Duration.ofHours(1));
+
+        assertEquals(5, namespace.bump());
+        assertEquals("users::v5::id:1", namespace.key("id:1"));
+
+        verify(valueOperations, times(0)).get("users::generation");
+    }
+
+    @Test
+    void resync_PicksUpGenerationBumpedElsewhere() {
+        when(valueOperations.get("users::generation")).thenReturn("1", "2");
+        namespace = new CacheNamespace("users::", stringRedisTemplate, Duration.ofHours(1));
+        assertEquals("users::v1::id:1", namespace.key("id:1"));
+
+        namespace.resync();
+
+        assertEquals("users::v2::id:1", namespace.key("id:1"));
+    }
+
+    @Test
+    void backgroundTick_ResyncsAndSurvivesRedisFailures() {
+        when(valueOperations.get("users::generation"))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn("3");
+        namespace = new CacheNamespace("users::", stringRedisTemplate, Duration.ofMillis(10));
+
+        verify(valueOperations, timeout(2000).atLeast(2)).get("users::generation");
+        assertEquals("users::v3::id:1", namespace.key("id:1"));
+    }
+}
@@ -0,0 +1,122 @@
+package by.osinovi.userservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheRefresherTests {
+
+    private static final Duration LOCAL_TTL = Duration.ofSeconds(30);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private CacheRefresher refresher;
+
+    @AfterEach
+    void tearDown() {
+        if (refresher != null) {
+            refresher.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRefresh_FarFromExpiry_ReturnsFalse() {
+        refresher = new CacheRefresher(transactionManager, true, 1.0, Duration.ofMillis(50), 4);
+
+        assertFalse(refresher.shouldRefresh(Duration.ofMinutes(9).toMillis(), LOCAL_TTL));
+    }
+
+    @Test
+    void shouldRefresh_ExpiresBeforeNextLocalMiss_ReturnsTrue() {
+        refresher = new CacheRefresher(transactionManager, true, 1.0, Duration.ofMillis(50), 4);
+
+        assertTrue(refresher.shouldRefresh(Duration.ofSeconds(10).toMillis(), LOCAL_TTL));
+    }
+
+    @Test
+    void shouldRefresh_Disabled_ReturnsFalse() {
+        refresher = new CacheRefresher(transactionManager, false, 1.0, Duration.ofMillis(50), 4);
+
+        assertFalse(refresher.shouldRefresh(0, LOCAL_TTL));
+    }
+
+    @Test
+    void refresh_SameKeyTwice_RunsOnce() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        refresher = new CacheRefresher(transactionManager, true, 1.0, Duration.ofMillis(50), 4);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        refresher.refresh("users::id:1", () -> {
+            runs.incrementAndGet();
+            awaitQuietly(release);
+            done.countDown();
+        });
+        refresher.refresh("users::id:1", runs::incrementAndGet);
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void refresh_Reload_RunsReadOnly() throws Exception {
+        refresher = new CacheRefresher(new NoOpTransactionManager(), true, 1.0, Duration.ofMillis(50), 4);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean readOnly = new AtomicBoolean();
+
+        refresher.refresh("cards::1", () -> {
+            readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(readOnly.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
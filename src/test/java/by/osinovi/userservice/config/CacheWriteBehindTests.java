@@ -0,0 +1,77 @@
+package by.osinovi.userservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheWriteBehindTests {
+
+    private CacheWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    void execute_Disabled_RunsOnCallerThread() {
+        writeBehind = new CacheWriteBehind(false, 1, 1);
+        AtomicInteger writes = new AtomicInteger();
+
+        writeBehind.execute("users::id:1", writes::incrementAndGet);
+
+        assertEquals(1, writes.get());
+        assertThrows(IllegalStateException.class, () -> writeBehind.execute("users::id:2", () -> {
+            throw new IllegalStateException("redis down");
+        }));
+    }
+
+    @Test
+    void execute_QueueFull_DropsWrites() throws InterruptedException {
+        writeBehind = new CacheWriteBehind(true, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+
+        writeBehind.execute("users::id:1", () -> {
+            started.countDown();
+            awaitQuietly(release);
+            writes.incrementAndGet();
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        writeBehind.execute("users::id:2", writes::incrementAndGet);
+        writeBehind.execute("users::id:3", writes::incrementAndGet);
+
+        CacheWriteStats stats = writeBehind.getStats();
+        assertEquals(1, stats.queueDepth());
+        assertEquals(1, stats.dropped());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        writeBehind.bindTo(registry);
+        assertEquals(1, registry.get("cache.writebehind.queue.depth").gauge().value());
+        assertEquals(1, registry.get("cache.writebehind.dropped").functionCounter().count());
+
+        release.countDown();
+        writeBehind.shutdown();
+        assertEquals(2, writes.get());
+        assertEquals(2, writeBehind.getStats().completed());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
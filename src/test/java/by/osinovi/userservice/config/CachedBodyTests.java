@@ -0,0 +1,53 @@
+package by.osinovi.userservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedBodyTests {
+
+    private static final byte[] JSON = "{\"id\":1,\"name\":\"John\",\"cards\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void of_BelowMinSize_KeepsIdentityBytes() {
+        CachedBody body = CachedBody.of(JSON, "\"1.0\"", 1024);
+
+        assertFalse(body.gzipped());
+        assertArrayEquals(JSON, body.body());
+    }
+
+    @Test
+    void of_AboveMinSize_GzipsAndRestoresIdentity() {
+        byte[] json = ("[" + "{\"number\":\"4111111111111111\"},".repeat(100) + "{}]").getBytes(StandardCharsets.UTF_8);
+
+        CachedBody body = CachedBody.of(json, "\"abc\"", 1024);
+
+        assertTrue(body.gzipped());
+        assertTrue(body.body().length < json.length);
+        assertArrayEquals(json, body.identity());
+    }
+
+    @Test
+    void encode_RoundTripsThroughRedisFormat() {
+        CachedBody decoded = CachedBody.decode(CachedBody.of(JSON, "\"7.1f\"", -1).encode());
+
+        assertEquals("\"7.1f\"", decoded.etag());
+        assertFalse(decoded.gzipped());
+        assertArrayEquals(JSON, decoded.body());
+    }
+
+    @Test
+    void encode_WithoutEtag_DecodesToNull() {
+        CachedBody decoded = CachedBody.decode(new CachedBody(null, true, new byte[]{1, 2}).encode());
+
+        assertNull(decoded.etag());
+        assertTrue(decoded.gzipped());
+        assertArrayEquals(new byte[]{1, 2}, decoded.body());
+    }
+}
@@ -0,0 +1,112 @@
+package by.osinovi.userservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalCacheLoadCoalescerTests {
+
+    private final LocalCacheLoadCoalescer coalescer = new LocalCacheLoadCoalescer(Duration.ofSeconds(5));
+
+    @Test
+    void load_ConcurrentCallersForSameKey_RunLoaderOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> coalescer.load("users::id:1", () -> null, () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                awaitQuietly(release);
+                return "user";
+            })));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> coalescer.load("users::id:1", () -> null, () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("user", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void load_LoaderFails_PropagatesSameException() {
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> coalescer.load("cards::1", () -> null, () -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals("ok", coalescer.load("cards::1", () -> null, () -> "ok"));
+    }
+
+    @Test
+    void load_CacheFilledBeforeWinningSlot_SkipsLoader() {
+        AtomicInteger loads = new AtomicInteger();
+
+        String value = coalescer.load("users::id:1", () -> "cached", () -> {
+            loads.incrementAndGet();
+            return "loaded";
+        });
+
+        assertEquals("cached", value);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void load_InFlightLoadOutlastsJoinTimeout_LoadsDirectly() throws Exception {
+        LocalCacheLoadCoalescer shortJoin = new LocalCacheLoadCoalescer(Duration.ofMillis(50));
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> shortJoin.load("cards::1", () -> null, () -> {
+                loaderStarted.countDown();
+                awaitQuietly(release);
+                return "slow";
+            }));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+
+            assertEquals("direct", shortJoin.load("cards::1", () -> null, () -> "direct"));
+
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
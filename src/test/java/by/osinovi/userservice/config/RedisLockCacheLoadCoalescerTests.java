@@ -0,0 +1,104 @@
+package by.osinovi.userservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisLockCacheLoadCoalescerTests {
+
+    private static final Duration LOCK_TTL = Duration.ofSeconds(5);
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private RedisLockCacheLoadCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        coalescer = new RedisLockCacheLoadCoalescer(stringRedisTemplate, LOCK_TTL, Duration.ofMillis(200));
+    }
+
+    @Test
+    void load_LockAcquired_LoadsAndReleasesLock() {
+        when(valueOperations.setIfAbsent(eq("locks::users::id:1"), anyString(), eq(LOCK_TTL))).thenReturn(true);
+
+        assertEquals("user", coalescer.load("users::id:1", () -> null, () -> "user"));
+
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("locks::users::id:1")), anyString());
+    }
+
+    @Test
+    void load_FilledBeforeLockAcquired_ReturnsCachedValueWithoutLoading() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), eq(LOCK_TTL))).thenReturn(true);
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+
+        String result = coalescer.load("users::id:1", () -> lookups.incrementAndGet() > 1 ? "filled" : null, () -> {
+            loads.incrementAndGet();
+            return "loaded";
+        });
+
+        assertEquals("filled", result);
+        assertEquals(0, loads.get());
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("locks::users::id:1")), anyString());
+    }
+
+    @Test
+    void load_LoaderFails_StillReleasesLock() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), eq(LOCK_TTL))).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> coalescer.load("cards::1", () -> null, () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("locks::cards::1")), anyString());
+    }
+
+    @Test
+    void load_LockHeldElsewhere_ReturnsValueFilledByHolder() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), eq(LOCK_TTL))).thenReturn(false);
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+
+        String value = coalescer.load("users::id:1", () -> lookups.incrementAndGet() > 2 ? "filled" : null, () -> {
+            loads.incrementAndGet();
+            return "loaded";
+        });
+
+        assertEquals("filled", value);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void load_LockHeldPastWaitTimeout_LoadsDirectly() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), eq(LOCK_TTL))).thenReturn(false);
+
+        assertEquals("loaded", coalescer.load("users::id:1", () -> null, () -> "loaded"));
+
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), any(List.class), anyString());
+    }
+
+    @Test
+    void load_AlreadyCached_SkipsLock() {
+        assertEquals("cached", coalescer.load("users::id:1", () -> "cached", () -> "loaded"));
+
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+}
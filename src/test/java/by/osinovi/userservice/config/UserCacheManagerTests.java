@@ -0,0 +1,111 @@
+package by.osinovi.userservice.config;
+
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheManagerTests {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, UserResponseDto> redisTemplate = mock(RedisTemplate.class);
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private UserCacheManager userCacheManager;
+
+    @BeforeEach
+    void setUp() {
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        userCacheManager = new UserCacheManager(redisTemplate, stringRedisTemplate, invalidationBus,
+                mock(CacheRefresher.class), 100, Duration.ofSeconds(30), Duration.ofSeconds(30),
+                Duration.ofSeconds(10), DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userCacheManager.stopNamespaceResync();
+    }
+
+    @Test
+    void clearAll_MovesToNextGenerationAndTellsOtherNodes() {
+        when(valueOperations.increment("users::generation")).thenReturn(8L);
+
+        userCacheManager.clearAll();
+        userCacheManager.getUserByEmail("a@example.com");
+
+        verify(invalidationBus).publish("users::" + CacheInvalidationBus.WILDCARD);
+        verify(valueOperations).get("users::v8::email:a@example.com");
+        verify(valueOperations, times(0)).get("users::generation");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clearAnnouncedByOtherNode_ResyncsGeneration() {
+        when(valueOperations.get("users::generation")).thenReturn("1", "2");
+        userCacheManager.subscribeToInvalidations();
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).subscribe(eq("users::"), listener.capture());
+        userCacheManager.getUserByEmail("a@example.com");
+
+        listener.getValue().accept("users::" + CacheInvalidationBus.WILDCARD);
+        userCacheManager.getUserByEmail("a@example.com");
+
+        verify(valueOperations).get("users::v1::email:a@example.com");
+        verify(valueOperations).get("users::v2::email:a@example.com");
+    }
+
+    @Test
+    void clearMissing_Batch_FencesAndAnnouncesAllKeysInOnePipeline() {
+        when(valueOperations.increment("users::fence")).thenReturn(1L);
+
+        userCacheManager.clearMissing(List.of("1", "2"), List.of("a@example.com"));
+
+        verify(valueOperations, times(1)).increment("users::fence");
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(invalidationBus, never()).publish(anyString());
+    }
+
+    @Test
+    void bindTo_ExportsLookupsByTierAndResult() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        userCacheManager.bindTo(registry);
+
+        userCacheManager.getUserByEmail("a@example.com");
+
+        assertEquals(1, gets(registry, "local", "miss"));
+        assertEquals(1, gets(registry, "remote", "miss"));
+        assertEquals(0, gets(registry, "local", "hit"));
+        assertEquals(0, gets(registry, "remote", "hit"));
+    }
+
+    private static double gets(MeterRegistry registry, String tier, String result) {
+        return registry.get("cache.tiered.gets")
+                .tags("cache", "users", "tier", tier, "result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,99 @@
+package by.osinovi.userservice.config.codec;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryRedisSerializerTests {
+
+    private Jackson2JsonRedisSerializer<UserResponseDto> jsonSerializer;
+    private UserResponseDtoBinarySerializer userSerializer;
+    private UserResponseDto user;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        jsonSerializer = new Jackson2JsonRedisSerializer<>(mapper, UserResponseDto.class);
+        userSerializer = new UserResponseDtoBinarySerializer(jsonSerializer);
+
+        CardResponseDto card = new CardResponseDto(10L, "1234567812345678", "JOHN DOE", LocalDate.of(2030, 12, 31), 1, 3L);
+        user = new UserResponseDto(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com", List.of(card), 2L);
+    }
+
+    @Test
+    void roundTrip_PreservesAllFields() {
+        UserResponseDto result = userSerializer.deserialize(userSerializer.serialize(user));
+
+        assertEquals(1L, result.getId());
+        assertEquals("John", result.getName());
+        assertEquals("Doe", result.getSurname());
+        assertEquals(LocalDate.of(1990, 1, 1), result.getBirthDate());
+        assertEquals("john.doe@example.com", result.getEmail());
+        assertEquals(2L, result.getVersion());
+        assertEquals(1, result.getCards().size());
+        CardResponseDto card = result.getCards().get(0);
+        assertEquals(10L, card.getId());
+        assertEquals("1234567812345678", card.getNumber());
+        assertEquals("JOHN DOE", card.getHolder());
+        assertEquals(LocalDate.of(2030, 12, 31), card.getExpirationDate());
+        assertEquals(1, card.getUserId());
+        assertEquals(3L, card.getVersion());
+    }
+
+    @Test
+    void roundTrip_OmitsNullFields() {
+        user.setBirthDate(null);
+        user.setCards(null);
+
+        UserResponseDto result = userSerializer.deserialize(userSerializer.serialize(user));
+
+        assertNull(result.getBirthDate());
+        assertTrue(result.getCards().isEmpty());
+    }
+
+    @Test
+    void serialize_IsSmallerThanJson() {
+        assertTrue(userSerializer.serialize(user).length < jsonSerializer.serialize(user).length);
+    }
+
+    @Test
+    void deserialize_JsonPayload_FallsBackToJson() {
+        UserResponseDto result = userSerializer.deserialize(jsonSerializer.serialize(user));
+
+        assertEquals("john.doe@example.com", result.getEmail());
+    }
+
+    @Test
+    void deserialize_UnknownField_IsSkipped() {
+        byte[] known = userSerializer.serialize(user);
+        byte[] extra = new BinaryWriter(16).writeString(15, "added later").writeLong(14, 42L).toByteArray();
+        byte[] evolved = new byte[known.length + extra.length];
+        System.arraycopy(known, 0, evolved, 0, known.length);
+        System.arraycopy(extra, 0, evolved, known.length, extra.length);
+
+        UserResponseDto result = userSerializer.deserialize(evolved);
+
+        assertEquals("john.doe@example.com", result.getEmail());
+        assertEquals(1, result.getCards().size());
+    }
+
+    @Test
+    void deserialize_UnsupportedVersion_IsCacheMiss() {
+        byte[] payload = userSerializer.serialize(user);
+        payload[1] = (byte) (BinaryRedisSerializer.FORMAT_VERSION + 1);
+
+        assertNull(userSerializer.deserialize(payload));
+    }
+}
@@ -0,0 +1,108 @@
+package by.osinovi.userservice.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTests {
+
+    private final ReplicaHealthMonitor healthMonitor = mock(ReplicaHealthMonitor.class);
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(stringRedisTemplate, Duration.ofMinutes(1));
+    private final ReadWriteRoutingDataSource routing =
+            new ReadWriteRoutingDataSource(List.of("replica-0", "replica-1"), healthMonitor, tracker);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+        tracker.clear();
+    }
+
+    @Test
+    void determineCurrentLookupKey_NoTransaction_UsesPrimary() {
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReadOnlyTransaction_RoundRobinsHealthyReplicas() {
+        when(healthMonitor.isHealthy("replica-0")).thenReturn(true);
+        when(healthMonitor.isHealthy("replica-1")).thenReturn(true);
+        readOnlyTransaction();
+
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_UnhealthyReplica_IsSkipped() {
+        when(healthMonitor.isHealthy("replica-0")).thenReturn(false);
+        when(healthMonitor.isHealthy("replica-1")).thenReturn(true);
+        readOnlyTransaction();
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_AfterWriteBySameClient_StaysOnPrimary() {
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        tracker.bind("client-a");
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        verify(valueOperations).set("ryw::client-a", "1", Duration.ofMinutes(1));
+
+        when(stringRedisTemplate.hasKey("ryw::client-a")).thenReturn(true);
+        readOnlyTransaction();
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        when(healthMonitor.isHealthy("replica-0")).thenReturn(true);
+        tracker.bind("client-b");
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_TrackerUnreachable_UsesPrimary() {
+        when(stringRedisTemplate.hasKey("ryw::client-a")).thenThrow(new RedisConnectionFailureException("down"));
+        tracker.bind("client-a");
+        readOnlyTransaction();
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_ReplicaChosen_MarksReplicaReadUntilCleared() {
+        when(healthMonitor.isHealthy("replica-0")).thenReturn(true);
+        readOnlyTransaction();
+        assertFalse(tracker.readFromReplica());
+
+        assertEquals("replica-0", routing.determineCurrentLookupKey());
+        assertTrue(tracker.readFromReplica());
+
+        tracker.clear();
+        assertFalse(tracker.readFromReplica());
+    }
+
+    private static void readOnlyTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+}
@@ -0,0 +1,67 @@
+package by.osinovi.userservice.config.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ReadYourWritesFilterTests {
+
+    private final ReadYourWritesTracker tracker = mock(ReadYourWritesTracker.class);
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(tracker);
+
+    @Test
+    void header_IdentifiesClient() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+        request.addHeader(ReadYourWritesFilter.CLIENT_ID_HEADER, "client-a");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        verify(tracker).bind("client-a");
+        verify(tracker).clear();
+        assertNull(response.getCookie(ReadYourWritesFilter.CLIENT_ID_COOKIE));
+    }
+
+    @Test
+    void cookie_IdentifiesClientWithoutHeader() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.CLIENT_ID_COOKIE, "client-b"));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(tracker).bind("client-b");
+    }
+
+    @Test
+    void anonymousWrite_IssuesClientCookie() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/users/1");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        Cookie issued = response.getCookie(ReadYourWritesFilter.CLIENT_ID_COOKIE);
+        assertNotNull(issued);
+        verify(tracker).bind(issued.getValue());
+    }
+
+    @Test
+    void anonymousRead_IsNotTrackedByRemoteAddress() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        verify(tracker).bind(isNull());
+        assertNull(response.getCookie(ReadYourWritesFilter.CLIENT_ID_COOKIE));
+    }
+}
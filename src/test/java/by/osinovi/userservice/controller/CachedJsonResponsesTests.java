@@ -0,0 +1,149 @@
+package by.osinovi.userservice.controller;
+
+import by.osinovi.userservice.config.CachedBody;
+import by.osinovi.userservice.config.CardCacheManager;
+import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.config.datasource.ReadYourWritesTracker;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachedJsonResponsesTests {
+
+    @Mock
+    private UserCacheManager userCacheManager;
+
+    @Mock
+    private CardCacheManager cardCacheManager;
+
+    private ObjectMapper objectMapper;
+    private CachedJsonResponses responses;
+    private UserResponseDto user;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        responses = new CachedJsonResponses(userCacheManager, cardCacheManager, objectMapper,
+                mock(ReadYourWritesTracker.class), true, true, DataSize.ofKilobytes(1));
+        user = new UserResponseDto(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com",
+                new ArrayList<>(), 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void user_CacheHit_WritesStoredBytesWithoutLoading() {
+        byte[] json = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        when(userCacheManager.getUserBody("1")).thenReturn(new CachedBody("\"2.0\"", false, json));
+        Supplier<UserResponseDto> loader = mock(Supplier.class);
+
+        ResponseEntity<byte[]> response = responses.user("1", null, loader);
+
+        assertArrayEquals(json, response.getBody());
+        assertEquals("\"2.0\"", response.getHeaders().getETag());
+        verify(loader, never()).get();
+    }
+
+    @Test
+    void user_CacheMiss_RendersSameJsonAsJacksonAndCachesIt() throws Exception {
+        ResponseEntity<byte[]> response = responses.user("1", "gzip", () -> user);
+
+        ArgumentCaptor<CachedBody> cached = ArgumentCaptor.forClass(CachedBody.class);
+        verify(userCacheManager).fillUserBody(eq("1"), cached.capture(), eq(0L), eq(false));
+        assertArrayEquals(objectMapper.writeValueAsBytes(user), response.getBody());
+        assertEquals(ETags.forUser(user), response.getHeaders().getETag());
+        assertEquals(ETags.forUser(user), cached.getValue().etag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void user_CacheMiss_TakesFillTicketBeforeLoading() {
+        when(userCacheManager.fillTicket()).thenReturn(7L);
+        Supplier<UserResponseDto> loader = mock(Supplier.class);
+        when(loader.get()).thenReturn(user);
+
+        responses.user("1", null, loader);
+
+        InOrder inOrder = inOrder(userCacheManager, loader);
+        inOrder.verify(userCacheManager).fillTicket();
+        inOrder.verify(loader).get();
+        inOrder.verify(userCacheManager).fillUserBody(eq("1"), any(), eq(7L), eq(false));
+    }
+
+    @Test
+    void userCards_GzippedBody_ServedAsIsOnlyToGzipClients() {
+        List<CardResponseDto> cards = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            cards.add(new CardResponseDto(i, "4111111111111111", "JOHN DOE", LocalDate.of(2030, 12, 31), 1, 0L));
+        }
+
+        ResponseEntity<byte[]> gzipped = responses.userCards("1", "br, gzip", () -> cards);
+        ArgumentCaptor<CachedBody> cached = ArgumentCaptor.forClass(CachedBody.class);
+        verify(cardCacheManager).fillCardsBodyByUserId(eq("1"), cached.capture(), eq(0L), eq(false));
+        when(cardCacheManager.getCardsBodyByUserId("1")).thenReturn(cached.getValue());
+        ResponseEntity<byte[]> identity = responses.userCards("1", null, () -> cards);
+
+        assertTrue(cached.getValue().gzipped());
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(cached.getValue().body(), gzipped.getBody());
+        assertTrue(gzipped.getHeaders().getETag().endsWith("-gzip\""));
+        assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(cached.getValue().identity(), identity.getBody());
+        assertEquals(ETags.forCards(cards), identity.getHeaders().getETag());
+    }
+
+    @Test
+    void user_Disabled_NeverTouchesBodyCache() {
+        responses = new CachedJsonResponses(userCacheManager, cardCacheManager, objectMapper,
+                mock(ReadYourWritesTracker.class), false, false, DataSize.ofKilobytes(1));
+
+        responses.user("1", "gzip", () -> user);
+
+        verify(userCacheManager, never()).getUserBody(any());
+        verify(userCacheManager, never()).fillUserBody(any(), any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void acceptsGzip_HonoursQualityValues() {
+        assertTrue(CachedJsonResponses.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CachedJsonResponses.acceptsGzip("*"));
+        assertFalse(CachedJsonResponses.acceptsGzip("gzip;q=0"));
+        assertFalse(CachedJsonResponses.acceptsGzip("identity"));
+        assertFalse(CachedJsonResponses.acceptsGzip(null));
+    }
+}
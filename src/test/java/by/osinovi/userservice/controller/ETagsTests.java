@@ -0,0 +1,63 @@
+package by.osinovi.userservice.controller;
+
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ETagsTests {
+
+    private static CardResponseDto card(long id, long version) {
+        return new CardResponseDto(id, "1234567812345678", "JOHN DOE", LocalDate.of(2030, 12, 31), 1, version);
+    }
+
+    private static UserResponseDto user(long version, List<CardResponseDto> cards) {
+        return new UserResponseDto(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com", cards, version);
+    }
+
+    @Test
+    void forUser_ChangesWhenUserOrCardsChange() {
+        String tag = ETags.forUser(user(2L, List.of(card(10L, 0L))));
+
+        assertEquals(tag, ETags.forUser(user(2L, List.of(card(10L, 0L)))));
+        assertNotEquals(tag, ETags.forUser(user(3L, List.of(card(10L, 0L)))));
+        assertNotEquals(tag, ETags.forUser(user(2L, List.of(card(10L, 1L)))));
+        assertNotEquals(tag, ETags.forUser(user(2L, List.of(card(10L, 0L), card(11L, 0L)))));
+        assertNotEquals(tag, ETags.forUser(user(2L, new ArrayList<>())));
+    }
+
+    @Test
+    void forUser_WithoutVersion_ReturnsNull() {
+        UserResponseDto user = user(2L, List.of(card(10L, 0L)));
+        user.getCards().get(0).setVersion(null);
+
+        assertNull(ETags.forUser(user));
+        assertNull(ETags.forCard(new CardResponseDto()));
+    }
+
+    @Test
+    void expectedVersion_ParsesLeadingRowVersion() {
+        String tag = ETags.forUser(user(7L, List.of(card(10L, 0L))));
+
+        assertEquals(7L, ETags.expectedVersion(tag));
+        assertEquals(4L, ETags.expectedVersion(ETags.forCard(card(10L, 4L))));
+        assertEquals(7L, ETags.expectedVersion(tag.substring(0, tag.length() - 1) + "-gzip\""));
+        assertNull(ETags.expectedVersion(null));
+        assertNull(ETags.expectedVersion("*"));
+    }
+
+    @Test
+    void expectedVersion_RejectsWeakOrMalformedTags() {
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("W/\"7\""));
+        assertThrows(PreconditionFailedException.class, () -> ETags.expectedVersion("\"abc\""));
+    }
+}
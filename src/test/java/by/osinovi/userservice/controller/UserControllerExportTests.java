@@ -0,0 +1,51 @@
+package by.osinovi.userservice.controller;
+
+import by.osinovi.userservice.service.UserExportService;
+import by.osinovi.userservice.service.UserImportService;
+import by.osinovi.userservice.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerExportTests {
+
+    private final UserExportService userExportService = mock(UserExportService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(mock(UserService.class),
+            userExportService, mock(UserImportService.class), mock(CachedJsonResponses.class), Duration.ofMinutes(30)))
+            .build();
+
+    @Test
+    void exportUsers_RunsWithItsOwnTimeoutAndStreamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExportService).exportUsers(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/api/users/export").param("afterId", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":2}\n"));
+    }
+}
@@ -0,0 +1,65 @@
+package by.osinovi.userservice.integration.cache;
+
+import by.osinovi.userservice.config.CacheFence;
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheFenceIntegrationTests extends BaseIntegrationTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private CacheFence fence;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        fence = new CacheFence("fenced::", stringRedisTemplate, TTL);
+    }
+
+    @Test
+    void fillTakenBeforeWrite_ShouldNotOverwriteIt() {
+        long ticket = fence.ticket();
+        fence.write(Map.of("fenced::a", bytes("fresh")), TTL, List.of());
+
+        assertThat(fence.fill("fenced::a", bytes("stale"), TTL, ticket)).isFalse();
+        assertThat(stringRedisTemplate.opsForValue().get("fenced::a")).isEqualTo("fresh");
+    }
+
+    @Test
+    void fillTakenBeforeEviction_ShouldNotRepopulateKey() {
+        stringRedisTemplate.opsForValue().set("fenced::a", "old");
+        long ticket = fence.ticket();
+        fence.write(Map.of(), TTL, List.of("fenced::a"));
+
+        assertThat(fence.fill("fenced::a", bytes("stale"), TTL, ticket)).isFalse();
+        assertThat(stringRedisTemplate.hasKey("fenced::a")).isFalse();
+    }
+
+    @Test
+    void fillTakenAfterWrite_ShouldBeAccepted() {
+        fence.write(Map.of(), TTL, List.of("fenced::a"));
+        long ticket = fence.ticket();
+
+        assertThat(fence.fill(Map.of("fenced::a", bytes("fresh"), "fenced::b", bytes("other")), TTL, ticket))
+                .containsExactlyInAnyOrder("fenced::a", "fenced::b");
+        assertThat(stringRedisTemplate.opsForValue().get("fenced::a")).isEqualTo("fresh");
+        assertThat(stringRedisTemplate.getExpire("fenced::a")).isPositive();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
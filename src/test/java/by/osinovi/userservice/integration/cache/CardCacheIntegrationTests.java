@@ -131,6 +131,39 @@ class CardCacheIntegrationTests extends BaseIntegrationTest {
         assertThat(cardCacheManager.getCard(String.valueOf(createdCard.getId()))).isNotNull();
     }
 
+    @Test
+    void getCardsByUserId_ShouldCacheListAndEvictOnCreate() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("List");
+        userRequest.setSurname("Card");
+        userRequest.setEmail("list.cache.card@example.com");
+        userRequest.setBirthDate(LocalDate.of(1990, 1, 1));
+
+        UserResponseDto createdUser = createUser(userRequest);
+        String userId = String.valueOf(createdUser.getId());
+
+        CardRequestDto cardRequest = new CardRequestDto();
+        cardRequest.setNumber("1111222233334444");
+        cardRequest.setHolder("LIST CARD");
+        cardRequest.setExpirationDate(LocalDate.of(2025, 12, 31));
+        createCard(createdUser.getId(), cardRequest);
+
+        mockMvc.perform(get("/api/cards/user/{userId}", createdUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        assertThat(cardCacheManager.getCardsByUserId(userId)).hasValueSatisfying(cards -> assertThat(cards).hasSize(1));
+
+        cardRequest.setNumber("5555666677778888");
+        createCard(createdUser.getId(), cardRequest);
+
+        assertThat(cardCacheManager.getCardsByUserId(userId)).isEmpty();
+
+        mockMvc.perform(get("/api/cards/user/{userId}", createdUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     void updateCard_ShouldEvictCache() throws Exception {
         UserRequestDto userRequest = new UserRequestDto();
@@ -210,4 +243,39 @@ class CardCacheIntegrationTests extends BaseIntegrationTest {
         assertThat(userCacheManager.getUserById(createdUser.getId().toString())).isNull();
         assertThat(userCacheManager.getUserByEmail(createdUser.getEmail())).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteUser_ShouldEvictTheirCardEntries() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("Owner");
+        userRequest.setSurname("Gone");
+        userRequest.setEmail("owner.gone@example.com");
+        userRequest.setBirthDate(LocalDate.of(1990, 1, 1));
+
+        UserResponseDto createdUser = createUser(userRequest);
+        String userId = String.valueOf(createdUser.getId());
+
+        CardRequestDto cardRequest = new CardRequestDto();
+        cardRequest.setNumber("4444333322221111");
+        cardRequest.setHolder("OWNER GONE");
+        cardRequest.setExpirationDate(LocalDate.of(2028, 8, 8));
+        CardResponseDto createdCard = createCard(createdUser.getId(), cardRequest);
+        String cardId = String.valueOf(createdCard.getId());
+
+        mockMvc.perform(get("/api/cards/user/{userId}", userId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/cards/by-number").param("number", "4444333322221111")).andExpect(status().isOk());
+
+        assertThat(cardCacheManager.getCardsByUserId(userId)).isPresent();
+        assertThat(cardCacheManager.getCardsBodyByUserId(userId)).isNotNull();
+        assertThat(cardCacheManager.getCard(cardId)).isNotNull();
+        assertThat(cardCacheManager.getCardIdByNumber("4444333322221111")).isEqualTo(cardId);
+
+        mockMvc.perform(delete("/api/users/{id}", userId))
+                .andExpect(status().isNoContent());
+
+        assertThat(cardCacheManager.getCardsByUserId(userId)).isEmpty();
+        assertThat(cardCacheManager.getCardsBodyByUserId(userId)).isNull();
+        assertThat(cardCacheManager.getCard(cardId)).isNull();
+        assertThat(cardCacheManager.getCardIdByNumber("4444333322221111")).isNull();
+    }
+}
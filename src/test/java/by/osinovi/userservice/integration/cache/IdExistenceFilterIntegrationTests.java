@@ -0,0 +1,88 @@
+package by.osinovi.userservice.integration.cache;
+
+import by.osinovi.userservice.config.CacheInvalidationBus;
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import by.osinovi.userservice.repository.CardRepository;
+import by.osinovi.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class IdExistenceFilterIntegrationTests extends BaseIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void idsAddedOnOneNode_ShouldBeVisibleOnAnother() {
+        User existing = new User();
+        existing.setName("John");
+        existing.setSurname("Doe");
+        existing.setEmail("john.bloom@example.com");
+        existing.setBirthDate(LocalDate.of(1990, 1, 1));
+        existing = userRepository.save(existing);
+
+        IdExistenceFilter nodeA = node();
+        IdExistenceFilter nodeB = node();
+        assertThat(nodeA.isDefinitelyAbsentUser(existing.getId())).isFalse();
+
+        rebuild(nodeA);
+        assertThat(nodeB.isDefinitelyAbsentUser(existing.getId())).isFalse();
+        assertThat(nodeB.isDefinitelyAbsentUser(existing.getId() + 1_000_000)).isTrue();
+
+        nodeA.addUsers(List.of(existing.getId() + 1_000_000));
+        nodeA.addCard(7L);
+        nodeB.resync();
+        assertThat(nodeB.isDefinitelyAbsentUser(existing.getId() + 1_000_000)).isFalse();
+        assertThat(nodeB.isDefinitelyAbsentCard(7L)).isFalse();
+    }
+
+    @Test
+    void droppedBitmap_ShouldFallThroughInsteadOfRejecting() {
+        IdExistenceFilter node = node();
+        rebuild(node);
+        assertThat(node.isDefinitelyAbsentUser(1L)).isTrue();
+
+        stringRedisTemplate.delete(stringRedisTemplate.keys("bloom::users::*"));
+        node.resync();
+
+        assertThat(node.isDefinitelyAbsentUser(1L)).isFalse();
+    }
+
+    private void rebuild(IdExistenceFilter node) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> node.rebuild());
+    }
+
+    private IdExistenceFilter node() {
+        return new IdExistenceFilter(userRepository, cardRepository, stringRedisTemplate,
+                mock(CacheInvalidationBus.class), true, 10_000, 0.01, Duration.ofMinutes(1));
+    }
+}
@@ -1,5 +1,6 @@
 package by.osinovi.userservice.integration.cache;
 
+import by.osinovi.userservice.config.TieredCacheStats;
 import by.osinovi.userservice.config.UserCacheManager;
 import by.osinovi.userservice.dto.user.UserRequestDto;
 import by.osinovi.userservice.dto.user.UserResponseDto;
@@ -11,12 +12,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -38,6 +42,9 @@ class UserCacheIntegrationTests extends BaseIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
@@ -95,6 +102,36 @@ class UserCacheIntegrationTests extends BaseIntegrationTest {
         assertThat(userCacheManager.getUserByEmail(createdUser.getEmail())).isNotNull();
     }
 
+    @Test
+    void getUserById_ShouldCacheRenderedBodyAndDropItOnUpdate() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("Body");
+        userRequest.setSurname("Cache");
+        userRequest.setEmail("body.cache@example.com");
+        userRequest.setBirthDate(LocalDate.of(1990, 1, 1));
+
+        UserResponseDto createdUser = createUser(userRequest);
+        String id = createdUser.getId().toString();
+
+        String body = mockMvc.perform(get("/api/users/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(userCacheManager.getUserBody(id)).isNotNull();
+        assertThat(new String(userCacheManager.getUserBody(id).identity())).isEqualTo(body);
+
+        userRequest.setName("Updated");
+        mockMvc.perform(put("/api/users/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isOk());
+
+        assertThat(userCacheManager.getUserBody(id)).isNull();
+        mockMvc.perform(get("/api/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Updated"));
+    }
+
     @Test
     void getUserByEmail_ShouldCacheResult() throws Exception {
         UserRequestDto userRequest = new UserRequestDto();
@@ -116,6 +153,28 @@ class UserCacheIntegrationTests extends BaseIntegrationTest {
         assertThat(userCacheManager.getUserByEmail(createdUser.getEmail())).isNotNull();
     }
 
+    @Test
+    void getUserById_RepeatedReads_ShouldHitLocalTier() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("Local");
+        userRequest.setSurname("Tier");
+        userRequest.setEmail("local.tier@example.com");
+        userRequest.setBirthDate(LocalDate.of(1990, 1, 1));
+
+        UserResponseDto createdUser = createUser(userRequest);
+        TieredCacheStats before = userCacheManager.getStats();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/users/{id}", createdUser.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Local"));
+        }
+
+        TieredCacheStats after = userCacheManager.getStats();
+        assertThat(after.localHits() - before.localHits()).isEqualTo(3);
+        assertThat(after.remoteHits()).isEqualTo(before.remoteHits());
+    }
+
     @Test
     void updateUser_ShouldUpdateCache() throws Exception {
         UserRequestDto userRequest = new UserRequestDto();
@@ -179,4 +238,29 @@ class UserCacheIntegrationTests extends BaseIntegrationTest {
         assertThat(userCacheManager.getUserById(createdUser.getId().toString())).isNull();
         assertThat(userCacheManager.getUserByEmail(createdUser.getEmail())).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void cacheUser_ShouldStoreEmailAsPointerToId() {
+        UserResponseDto user = new UserResponseDto(501L, "Pointer", "Test", LocalDate.of(1990, 1, 1),
+                "pointer@example.com", new ArrayList<>(), 0L);
+
+        userCacheManager.cacheUser("501", "pointer@example.com", user);
+
+        Set<String> emailKeys = stringRedisTemplate.keys("users::v*::email:pointer@example.com");
+        assertThat(emailKeys).hasSize(1);
+        assertThat(stringRedisTemplate.opsForValue().get(emailKeys.iterator().next())).isEqualTo("501");
+        assertThat(userCacheManager.getUserByEmail("pointer@example.com").getId()).isEqualTo(501L);
+    }
+
+    @Test
+    void getUserByEmail_UserEntryEvicted_ShouldMissDespitePointer() {
+        UserResponseDto user = new UserResponseDto(502L, "Dangling", "Pointer", LocalDate.of(1990, 1, 1),
+                "dangling@example.com", new ArrayList<>(), 0L);
+        userCacheManager.cacheUser("502", "dangling@example.com", user);
+
+        userCacheManager.evictUser("502", null);
+
+        assertThat(stringRedisTemplate.keys("users::v*::email:dangling@example.com")).hasSize(1);
+        assertThat(userCacheManager.getUserByEmail("dangling@example.com")).isNull();
+    }
+}
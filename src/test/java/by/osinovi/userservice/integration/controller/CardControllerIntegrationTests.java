@@ -19,6 +19,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -130,6 +131,40 @@ class CardControllerIntegrationTests extends BaseIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void createCards_ShouldReturnPerItemResults() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("John");
+        userRequest.setSurname("Doe");
+        userRequest.setEmail("john.batch@example.com");
+        userRequest.setBirthDate(LocalDate.of(1990, 1, 1));
+
+        UserResponseDto createdUser = createUser(userRequest);
+
+        List<CardRequestDto> cards = List.of(
+                new CardRequestDto("1234567890123456", "JOHN DOE", LocalDate.of(2025, 12, 31)),
+                new CardRequestDto("2234567890123456", "JOHN DOE", LocalDate.of(2026, 12, 31)),
+                new CardRequestDto("1234567890123456", "JOHN DOE", LocalDate.of(2027, 12, 31)),
+                new CardRequestDto("3234567890123456", "JANE DOE", LocalDate.of(2025, 12, 31)));
+
+        mockMvc.perform(post("/api/cards/user/{userId}/batch", createdUser.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cards)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.items[0].created").value(true))
+                .andExpect(jsonPath("$.items[1].card.number").value("2234567890123456"))
+                .andExpect(jsonPath("$.items[2].created").value(false))
+                .andExpect(jsonPath("$.items[3].error").exists());
+
+        mockMvc.perform(get("/api/cards/user/{userId}", createdUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(get("/api/cards/by-number").param("number", "2234567890123456"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void getCardById_ShouldReturnCard() throws Exception {
         UserRequestDto userRequest = new UserRequestDto();
@@ -156,6 +191,32 @@ class CardControllerIntegrationTests extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.userId").value(createdUser.getId()));
     }
 
+    @Test
+    void getCardByNumber_ShouldReturnCard() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("Bob");
+        userRequest.setSurname("Stone");
+        userRequest.setEmail("bob.stone@example.com");
+        userRequest.setBirthDate(LocalDate.of(1991, 7, 21));
+
+        UserResponseDto createdUser = createUser(userRequest);
+
+        CardRequestDto cardRequest = new CardRequestDto();
+        cardRequest.setNumber("4000123412341234");
+        cardRequest.setHolder("BOB STONE");
+        cardRequest.setExpirationDate(LocalDate.of(2027, 6, 30));
+
+        CardResponseDto createdCard = createCard(createdUser.getId(), cardRequest);
+
+        mockMvc.perform(get("/api/cards/by-number").param("number", "4000123412341234"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(createdCard.getId()))
+                .andExpect(jsonPath("$.userId").value(createdUser.getId()));
+
+        mockMvc.perform(get("/api/cards/by-number").param("number", "4000123412340000"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getCardsByUserId_WithNonExistentUser_ShouldReturnEmptyList() throws Exception {
         mockMvc.perform(get("/api/cards/user/{userId}", 999L))
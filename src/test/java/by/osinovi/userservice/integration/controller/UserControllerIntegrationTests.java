@@ -10,18 +10,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureWebMvc
@@ -104,6 +111,53 @@ class UserControllerIntegrationTests extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.email").value("jane.smith@example.com"));
     }
 
+    @Test
+    void getUserById_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("Jane");
+        userRequest.setSurname("Smith");
+        userRequest.setEmail("jane.smith@example.com");
+        userRequest.setBirthDate(LocalDate.of(1985, 5, 15));
+
+        UserResponseDto createdUser = createUser(userRequest);
+
+        String etag = mockMvc.perform(get("/api/users/{id}", createdUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/{id}", createdUser.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void updateUser_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        UserRequestDto userRequest = new UserRequestDto();
+        userRequest.setName("Jane");
+        userRequest.setSurname("Smith");
+        userRequest.setEmail("jane.smith@example.com");
+        userRequest.setBirthDate(LocalDate.of(1985, 5, 15));
+
+        UserResponseDto createdUser = createUser(userRequest);
+        String etag = mockMvc.perform(get("/api/users/{id}", createdUser.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        userRequest.setName("Janet");
+        mockMvc.perform(put("/api/users/{id}", createdUser.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isOk());
+
+        userRequest.setName("Jenny");
+        mockMvc.perform(put("/api/users/{id}", createdUser.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void getUserById_WithNonExistentId_ShouldReturnNotFound() throws Exception {
         mockMvc.perform(get("/api/users/{id}", "999"))
@@ -135,6 +189,144 @@ class UserControllerIntegrationTests extends BaseIntegrationTest {
                 .andExpect(jsonPath("$[1].id").value(createdUser2.getId()));
     }
 
+    @Test
+    void getUsers_ShouldPageByCursor() throws Exception {
+        UserResponseDto first = null;
+        UserResponseDto last = null;
+        for (int i = 0; i < 3; i++) {
+            UserRequestDto userRequest = new UserRequestDto();
+            userRequest.setName("Page");
+            userRequest.setSurname("User");
+            userRequest.setEmail("page.user" + i + "@example.com");
+            userRequest.setBirthDate(LocalDate.of(1990, 1, 1));
+            last = createUser(userRequest);
+            if (first == null) {
+                first = last;
+            }
+        }
+
+        String response = mockMvc.perform(get("/api/users").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath("$.users[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.nextCursor").isNumber())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(response).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/users").param("cursor", cursor).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].id").value(last.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void exportUsers_ShouldStreamNdjsonAfterGivenId() throws Exception {
+        UserRequestDto user1 = new UserRequestDto();
+        user1.setName("Alice");
+        user1.setSurname("Johnson");
+        user1.setEmail("alice.johnson@example.com");
+        user1.setBirthDate(LocalDate.of(1992, 3, 10));
+
+        UserRequestDto user2 = new UserRequestDto();
+        user2.setName("Bob");
+        user2.setSurname("Brown");
+        user2.setEmail("bob.brown@example.com");
+        user2.setBirthDate(LocalDate.of(1988, 7, 22));
+
+        UserResponseDto createdUser1 = createUser(user1);
+        UserResponseDto createdUser2 = createUser(user2);
+
+        MvcResult result = mockMvc.perform(get("/api/users/export")
+                        .param("afterId", createdUser1.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals(1, lines.length);
+        UserResponseDto exported = objectMapper.readValue(lines[0], UserResponseDto.class);
+        assertEquals(createdUser2.getId(), exported.getId());
+        assertEquals("bob.brown@example.com", exported.getEmail());
+    }
+
+    @Test
+    void importUsersNdjson_ShouldInsertValidRowsAndReportErrors() throws Exception {
+        String body = String.join("\n",
+                "{\"name\":\"Alice\",\"surname\":\"Johnson\",\"email\":\"alice.johnson@example.com\",\"birthDate\":\"1992-03-10\","
+                        + "\"cards\":[{\"number\":\"1234567812345678\",\"holder\":\"ALICE JOHNSON\",\"expirationDate\":\"2030-01-01\"}]}",
+                "{\"name\":\"Bob\",\"surname\":\"Brown\",\"email\":\"bob.brown@example.com\"}",
+                "{\"name\":\"Bob\",\"surname\":\"Brown\",\"email\":\"bob.brown@example.com\"}",
+                "{\"name\":\"\",\"surname\":\"Nobody\",\"email\":\"not-an-email\"}",
+                "{broken");
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(5))
+                .andExpect(jsonPath("$.importedUsers").value(2))
+                .andExpect(jsonPath("$.importedCards").value(1))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+
+        assertEquals(2, userRepository.count());
+        UserResponseDto imported = objectMapper.readValue(mockMvc.perform(get("/api/users/email/alice.johnson@example.com"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), UserResponseDto.class);
+        assertEquals(1, imported.getCards().size());
+    }
+
+    @Test
+    void importUsersCsv_ShouldGroupCardsByEmailAndRejectExistingEmails() throws Exception {
+        UserRequestDto existing = new UserRequestDto();
+        existing.setName("Bob");
+        existing.setSurname("Brown");
+        existing.setEmail("bob.brown@example.com");
+        existing.setBirthDate(LocalDate.of(1988, 7, 22));
+        createUser(existing);
+
+        String body = String.join("\n",
+                "name,surname,birthDate,email,cardNumber,cardHolder,cardExpirationDate",
+                "Alice,Johnson,1992-03-10,alice.johnson@example.com,1234567812345678,ALICE JOHNSON,2030-01-01",
+                "Alice,Johnson,1992-03-10,alice.johnson@example.com,8765432187654321,ALICE JOHNSON,2031-01-01",
+                "Bob,Brown,1988-07-22,bob.brown@example.com,,,");
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedUsers").value(1))
+                .andExpect(jsonPath("$.importedCards").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(4));
+    }
+
+    @Test
+    void importUsersCsv_ShouldKeepSeparatorsAndQuotesInsideQuotedFields() throws Exception {
+        String body = String.join("\n",
+                "name,surname,birthDate,email,cardNumber,cardHolder,cardExpirationDate",
+                "\"Smith, Jr.\",\"O\"\"Neil\",1991-05-05,smith.oneil@example.com,,,",
+                "Anne,Lee,1991-01-01,\"anne.lee@example.com\",1234567812345678,\"ANNE LEE\",2030-01-01",
+                "Carl,Smith,1990-01-01,\"carl.smith@example.com");
+
+        mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedUsers").value(2))
+                .andExpect(jsonPath("$.importedCards").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(4));
+
+        mockMvc.perform(get("/api/users/email/{email}", "smith.oneil@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Smith, Jr."))
+                .andExpect(jsonPath("$.surname").value("O\"Neil"));
+    }
+
     @Test
     void getUserByEmail_ShouldReturnUser() throws Exception {
         UserRequestDto userRequest = new UserRequestDto();
@@ -0,0 +1,101 @@
+package by.osinovi.userservice.integration.controller;
+
+import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.entity.Card;
+import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import by.osinovi.userservice.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureWebMvc
+class UserQueryCountIntegrationTests extends BaseIntegrationTest {
+
+    private static final int USERS = 20;
+    private static final int CARDS_PER_USER = 2;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCacheManager userCacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userRepository.deleteAll();
+        users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setName("User");
+            user.setSurname("Number");
+            user.setEmail("user" + i + "@example.com");
+            user.setBirthDate(LocalDate.of(1990, 1, 1));
+            for (int j = 0; j < CARDS_PER_USER; j++) {
+                user.getCards().add(new Card(null, user, String.format("%014d%02d", i, j), "USER NUMBER", LocalDate.of(2030, 1, 1), null));
+            }
+            users.add(userRepository.save(user));
+        }
+        userCacheManager.clearAll();
+        statistics.clear();
+    }
+
+    @Test
+    void getUserById_ShouldLoadUserAndCardsInOneStatement() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", users.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cards.length()").value(CARDS_PER_USER));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserByEmail_ShouldLoadUserAndCardsInOneStatement() throws Exception {
+        mockMvc.perform(get("/api/users/email/{email}", users.get(0).getEmail()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cards.length()").value(CARDS_PER_USER));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUsersByIds_ShouldLoadAllUsersAndCardsInOneStatement() throws Exception {
+        String[] ids = users.stream().map(user -> String.valueOf(user.getId())).toArray(String[]::new);
+
+        mockMvc.perform(get("/api/users").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(USERS))
+                .andExpect(jsonPath("$[0].cards.length()").value(CARDS_PER_USER));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,85 @@
+package by.osinovi.userservice.integration.datasource;
+
+import by.osinovi.userservice.config.datasource.ReadYourWritesTracker;
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadWriteRoutingIntegrationTests extends BaseIntegrationTest {
+
+    private static final String REPLICA_DATABASE = "user_service_replica";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withDatabaseName(REPLICA_DATABASE)
+                .withUsername("test_user")
+                .withPassword("test_password")
+                .withStartupTimeout(java.time.Duration.ofSeconds(120));
+        replica.start();
+
+        registry.add("datasource.routing.replicas[0].url", replica::getJdbcUrl);
+        registry.add("datasource.routing.read-your-writes-window", () -> "1m");
+    }
+
+    @AfterEach
+    void clearClient() {
+        readYourWritesTracker.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertEquals(REPLICA_DATABASE, currentDatabase(true));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        assertEquals("user_service_test", currentDatabase(false));
+    }
+
+    @Test
+    void readOnlyTransaction_AfterWrite_ShouldStayOnPrimaryForSameClient() {
+        readYourWritesTracker.bind("client-a");
+        currentDatabase(false);
+
+        assertEquals("user_service_test", currentDatabase(true));
+
+        readYourWritesTracker.bind("client-b");
+        assertEquals(REPLICA_DATABASE, currentDatabase(true));
+    }
+
+    @Test
+    void readOnlyTransaction_OnReplica_ShouldBeMarkedAsReplicaRead() {
+        currentDatabase(false);
+        assertFalse(readYourWritesTracker.readFromReplica());
+
+        assertEquals(REPLICA_DATABASE, currentDatabase(true));
+        assertTrue(readYourWritesTracker.readFromReplica());
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+}
@@ -0,0 +1,112 @@
+package by.osinovi.userservice.integration.migration;
+
+import by.osinovi.userservice.integration.config.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CardInfoPartitioningIntegrationTests extends BaseIntegrationTest {
+
+    private static final String INSERT_CARD = "INSERT INTO card_info (user_id, number, holder, expiration_date) "
+            + "VALUES (?, ?, 'JOHN DOE', DATE '2030-12-31') RETURNING id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanDatabase() {
+        jdbcTemplate.update("DELETE FROM card_info");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void migration_ShouldPartitionCardInfoAndKeepPooledSequence() {
+        assertEquals(8, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_inherits WHERE inhparent = 'card_info'::regclass", Integer.class));
+        Map<String, Object> id = jdbcTemplate.queryForMap("SELECT is_identity, column_default FROM information_schema.columns "
+                + "WHERE table_name = 'card_info' AND column_name = 'id'");
+        assertEquals("NO", id.get("is_identity"));
+        assertTrue(String.valueOf(id.get("column_default")).contains("card_info_id_seq"));
+        assertEquals(50, jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = 'card_info_id_seq'", Integer.class));
+    }
+
+    @Test
+    void insert_ShouldRegisterNumberAndRejectDuplicates() {
+        long userId = insertUser(1000);
+        long cardId = insertCard(userId, "1234567890123456");
+
+        assertEquals(List.of(Map.of("card_id", cardId, "user_id", userId)), lookup("1234567890123456"));
+        assertThrows(DataIntegrityViolationException.class, () -> insertCard(insertUser(1001), "1234567890123456"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM card_info", Integer.class));
+    }
+
+    @Test
+    void numberChange_ShouldMoveLookupEntry() {
+        long userId = insertUser(1000);
+        long cardId = insertCard(userId, "1234567890123456");
+
+        jdbcTemplate.update("UPDATE card_info SET number = '6543210987654321' WHERE id = ?", cardId);
+
+        assertTrue(lookup("1234567890123456").isEmpty());
+        assertEquals(List.of(Map.of("card_id", cardId, "user_id", userId)), lookup("6543210987654321"));
+    }
+
+    @Test
+    void ownerChangeAcrossPartitions_ShouldMoveRowAndLookupEntry() {
+        long fromUserId = insertUser(1000);
+        long cardId = insertCard(fromUserId, "1234567890123456");
+        String fromPartition = partitionOf(cardId);
+        long toUserId = 1001;
+        while (true) {
+            insertUser(toUserId);
+            if (!fromPartition.equals(partitionFor(toUserId))) {
+                break;
+            }
+            toUserId++;
+        }
+
+        jdbcTemplate.update("UPDATE card_info SET user_id = ? WHERE id = ?", toUserId, cardId);
+
+        assertNotEquals(fromPartition, partitionOf(cardId));
+        assertEquals(List.of(Map.of("card_id", cardId, "user_id", toUserId)), lookup("1234567890123456"));
+
+        jdbcTemplate.update("DELETE FROM card_info WHERE id = ?", cardId);
+        assertTrue(lookup("1234567890123456").isEmpty());
+    }
+
+    private long insertUser(long id) {
+        jdbcTemplate.update("INSERT INTO users (id, name, surname, email) VALUES (?, 'John', 'Doe', ?)",
+                id, "user" + id + "@example.com");
+        return id;
+    }
+
+    private long insertCard(long userId, String number) {
+        return jdbcTemplate.queryForObject(INSERT_CARD, Long.class, userId, number);
+    }
+
+    private List<Map<String, Object>> lookup(String number) {
+        return jdbcTemplate.queryForList("SELECT card_id, user_id FROM card_number_lookup WHERE number = ?", number);
+    }
+
+    private String partitionOf(long cardId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM card_info WHERE id = ?", String.class, cardId);
+    }
+
+    private String partitionFor(long userId) {
+        long probeId = insertCard(userId, "9999999999999999");
+        String partition = partitionOf(probeId);
+        jdbcTemplate.update("DELETE FROM card_info WHERE id = ?", probeId);
+        return partition;
+    }
+}
@@ -1,35 +1,55 @@
 package by.osinovi.userservice.service;
 
+import by.osinovi.userservice.dto.card.CardBatchResultDto;
 import by.osinovi.userservice.dto.card.CardRequestDto;
 import by.osinovi.userservice.dto.card.CardResponseDto;
 import by.osinovi.userservice.entity.Card;
 import by.osinovi.userservice.entity.User;
 import by.osinovi.userservice.exception.CardNotFoundException;
 import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.PreconditionFailedException;
 import by.osinovi.userservice.exception.UserNotFoundException;
 import by.osinovi.userservice.mapper.CardMapper;
+import by.osinovi.userservice.repository.CardBatchInserter;
 import by.osinovi.userservice.repository.CardRepository;
+import by.osinovi.userservice.repository.PooledIdAllocator;
 import by.osinovi.userservice.repository.UserRepository;
+import by.osinovi.userservice.config.CacheLoadCoalescer;
+import by.osinovi.userservice.config.CacheWriteBehind;
+import by.osinovi.userservice.config.LocalCacheLoadCoalescer;
 import by.osinovi.userservice.config.CardCacheManager;
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.config.SecondLevelCacheEvictor;
 import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.config.datasource.ReadYourWritesTracker;
 import by.osinovi.userservice.service.impl.CardServiceImpl;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,6 +72,30 @@ class CardServiceImplTests {
     @Mock
     private UserCacheManager userCacheManager;
 
+    @Mock
+    private IdExistenceFilter idExistenceFilter;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Mock
+    private PooledIdAllocator idAllocator;
+
+    @Mock
+    private SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    @Mock
+    private CardBatchInserter cardBatchInserter;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private CacheLoadCoalescer loadCoalescer = new LocalCacheLoadCoalescer(Duration.ofSeconds(5));
+
+    @Spy
+    private CacheWriteBehind cacheWriteBehind = new CacheWriteBehind(false, 1, 1);
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -90,46 +134,143 @@ class CardServiceImplTests {
 
     @Test
     void createCard_Success() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(cardRepository.existsByNumber(cardRequestDto.getNumber())).thenReturn(false);
-        when(cardMapper.toEntity(cardRequestDto)).thenReturn(card);
-        when(cardRepository.save(any(Card.class))).thenReturn(card);
-        when(cardMapper.toDto(card)).thenReturn(cardResponseDto);
+        when(idAllocator.next(PooledIdAllocator.CARD_SEQUENCE)).thenReturn(1L);
+        when(cardRepository.insertForOwner(1L, 1L, cardRequestDto.getNumber(), cardRequestDto.getHolder(),
+                cardRequestDto.getExpirationDate())).thenReturn(Optional.of(1L));
 
         CardResponseDto result = cardService.createCard("1", cardRequestDto);
 
         assertNotNull(result);
-        assertEquals(cardResponseDto, result);
-        verify(cardRepository).save(card);
-        verify(cardCacheManager).cacheCard("1", cardResponseDto);
-        verify(userCacheManager).evictUser("1", user.getEmail());
+        assertEquals(1L, result.getId());
+        assertEquals(1, result.getUserId());
+        assertEquals(cardRequestDto.getNumber(), result.getNumber());
+        verify(idExistenceFilter).addCard(1L);
+        verify(secondLevelCacheEvictor).evictUserCards(1L);
+        verify(cardCacheManager).cacheCard("1", result);
+        verify(cardCacheManager).evictCardsByUserId("1");
+        verify(userCacheManager).evictUser("1", null);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void createCards_MixedBatch_ReportsPerItemResults() {
+        CardRequestDto invalidHolder = new CardRequestDto("2234567890123456", "JANE DOE", LocalDate.of(2025, 12, 31));
+        CardRequestDto duplicateInBatch = new CardRequestDto("1234567890123456", "JOHN DOE", LocalDate.of(2026, 1, 31));
+        CardRequestDto existing = new CardRequestDto("3234567890123456", "JOHN DOE", LocalDate.of(2025, 12, 31));
+        CardRequestDto malformed = new CardRequestDto("123", "JOHN DOE", LocalDate.of(2025, 12, 31));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(cardRepository.findExistingNumbers(any())).thenReturn(List.of("3234567890123456"));
+        when(idAllocator.allocate(PooledIdAllocator.CARD_SEQUENCE, 1)).thenReturn(List.of(7L));
+
+        CardBatchResultDto result = cardService.createCards("1",
+                List.of(cardRequestDto, invalidHolder, duplicateInBatch, existing, malformed));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(4, result.getFailed());
+        assertTrue(result.getItems().get(0).isCreated());
+        assertEquals(7L, result.getItems().get(0).getCard().getId());
+        assertEquals("Holder must match the user's full name: JOHN DOE", result.getItems().get(1).getError());
+        assertEquals("Duplicate card number 1234567890123456 in batch", result.getItems().get(2).getError());
+        assertEquals("Card with number 3234567890123456 already exists", result.getItems().get(3).getError());
+        assertEquals("Card number must contain 16 digits", result.getItems().get(4).getError());
+        assertFalse(result.getItems().get(4).isCreated());
+        verify(cardBatchInserter).insert(List.of(result.getItems().get(0).getCard()));
+        verify(idExistenceFilter).addCards(List.of(7L));
+        verify(cardCacheManager).cacheNewCards(List.of(result.getItems().get(0).getCard()));
+        verify(cardCacheManager).evictCardsByUserId("1");
+        verify(userCacheManager).evictUser("1", "john.doe@example.com");
+    }
+
+    @Test
+    void createCards_NothingAccepted_SkipsInsertAndEviction() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(cardRepository.findExistingNumbers(any())).thenReturn(List.of("1234567890123456"));
+
+        CardBatchResultDto result = cardService.createCards("1", List.of(cardRequestDto));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(1, result.getFailed());
+        verify(cardBatchInserter, never()).insert(anyList());
+        verify(userCacheManager, never()).evictUser(any(), any());
+    }
+
+    @Test
+    void createCards_UserNotFound_ThrowsException() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> cardService.createCards("1", List.of(cardRequestDto)));
+        verify(cardRepository, never()).findExistingNumbers(any());
+    }
+
+    @Test
+    void createCards_EmptyBatch_ThrowsException() {
+        assertThrows(InvalidInputException.class, () -> cardService.createCards("1", List.of()));
+    }
+
+    @Test
+    void createCards_ConcurrentDuplicate_ReportsItAndInsertsTheRest() {
+        CardRequestDto other = new CardRequestDto("2234567890123456", "JOHN DOE", LocalDate.of(2026, 1, 31));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(cardRepository.findExistingNumbers(any())).thenReturn(List.of(), List.of("1234567890123456"));
+        when(idAllocator.allocate(PooledIdAllocator.CARD_SEQUENCE, 2)).thenReturn(List.of(7L, 8L));
+        doThrow(new DataIntegrityViolationException("pk_card_number_lookup"))
+                .doNothing()
+                .when(cardBatchInserter).insert(anyList());
+
+        CardBatchResultDto result = cardService.createCards("1", List.of(cardRequestDto, other));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals("Card with number 1234567890123456 already exists", result.getItems().get(0).getError());
+        assertFalse(result.getItems().get(0).isCreated());
+        assertEquals(8L, result.getItems().get(1).getCard().getId());
+        verify(cardBatchInserter).insert(List.of(result.getItems().get(1).getCard()));
+        verify(idExistenceFilter).addCards(List.of(8L));
+        verify(cardCacheManager).cacheNewCards(List.of(result.getItems().get(1).getCard()));
+    }
+
+    @Test
+    void createCards_ConflictOtherThanNumber_ThrowsException() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(cardRepository.findExistingNumbers(any())).thenReturn(List.of());
+        when(idAllocator.allocate(PooledIdAllocator.CARD_SEQUENCE, 1)).thenReturn(List.of(7L));
+        doThrow(new DataIntegrityViolationException("fk_card_info_user")).when(cardBatchInserter).insert(anyList());
+
+        assertThrows(InvalidInputException.class, () -> cardService.createCards("1", List.of(cardRequestDto)));
+        verify(cardCacheManager, never()).cacheNewCards(anyList());
     }
 
     @Test
     void createCard_UserNotFound_ThrowsException() {
+        when(idAllocator.next(PooledIdAllocator.CARD_SEQUENCE)).thenReturn(1L);
+        when(cardRepository.insertForOwner(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> cardService.createCard("1", cardRequestDto));
-        verify(cardRepository, never()).save(any());
+        verify(cardCacheManager, never()).cacheCard(any(), any());
     }
 
     @Test
     void createCard_CardNumberExists_ThrowsException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(cardRepository.existsByNumber(cardRequestDto.getNumber())).thenReturn(true);
+        when(idAllocator.next(PooledIdAllocator.CARD_SEQUENCE)).thenReturn(1L);
+        when(cardRepository.insertForOwner(any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("pk_card_number_lookup"));
 
-        assertThrows(InvalidInputException.class, () -> cardService.createCard("1", cardRequestDto));
-        verify(cardRepository, never()).save(any());
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> cardService.createCard("1", cardRequestDto));
+        assertEquals("Card with number 1234567890123456 already exists", exception.getMessage());
     }
 
     @Test
     void createCard_InvalidHolder_ThrowsException() {
         cardRequestDto.setHolder("JANE DOE");
+        when(idAllocator.next(PooledIdAllocator.CARD_SEQUENCE)).thenReturn(1L);
+        when(cardRepository.insertForOwner(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(cardRepository.existsByNumber(cardRequestDto.getNumber())).thenReturn(false);
 
-        assertThrows(InvalidInputException.class, () -> cardService.createCard("1", cardRequestDto));
-        verify(cardRepository, never()).save(any());
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> cardService.createCard("1", cardRequestDto));
+        assertEquals("Holder must match the user's full name: JOHN DOE", exception.getMessage());
     }
 
     @Test
@@ -140,47 +281,126 @@ class CardServiceImplTests {
 
         assertNotNull(result);
         assertEquals(cardResponseDto, result);
-        verify(cardRepository, never()).findById(anyLong());
+        verify(cardRepository, never()).findDtoById(anyLong());
     }
 
     @Test
     void getCardById_CacheMiss_Success() {
         when(cardCacheManager.getCard("1")).thenReturn(null);
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
-        when(cardMapper.toDto(card)).thenReturn(cardResponseDto);
+        when(cardRepository.findDtoById(1L)).thenReturn(Optional.of(cardResponseDto));
 
         CardResponseDto result = cardService.getCardById("1");
 
         assertNotNull(result);
         assertEquals(cardResponseDto, result);
-        verify(cardCacheManager).cacheCard("1", cardResponseDto);
+        verify(cardCacheManager).fillCard("1", cardResponseDto, 0L, false);
     }
 
     @Test
     void getCardById_NotFound_ThrowsException() {
         when(cardCacheManager.getCard("1")).thenReturn(null);
-        when(cardRepository.findById(1L)).thenReturn(Optional.empty());
+        when(cardRepository.findDtoById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(CardNotFoundException.class, () -> cardService.getCardById("1"));
+        verify(cardCacheManager).markCardMissing("1", 0L, false);
+    }
+
+    @Test
+    void getCardById_NegativeCacheHit_SkipsDatabase() {
+        when(cardCacheManager.getCard("1")).thenReturn(null);
+        when(cardCacheManager.isCardMissing("1")).thenReturn(true);
 
         assertThrows(CardNotFoundException.class, () -> cardService.getCardById("1"));
+        verify(cardRepository, never()).findDtoById(anyLong());
     }
 
     @Test
     void getCardsByUserId_Success() {
-        when(cardRepository.findCardsByUserId(1L)).thenReturn(List.of(card));
-        when(cardMapper.toDto(card)).thenReturn(cardResponseDto);
+        when(cardRepository.findDtosByUserId(1L)).thenReturn(List.of(cardResponseDto));
 
         List<CardResponseDto> result = cardService.getCardsByUserId("1");
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(cardResponseDto, result.get(0));
+        verify(cardCacheManager).fillCardsByUserId("1", List.of(cardResponseDto), 0L, false);
+    }
+
+    @Test
+    void getCardByNumber_CachedPointer_Success() {
+        when(cardCacheManager.getCardIdByNumber("1234567890123456")).thenReturn("1");
+        when(cardCacheManager.getCard("1")).thenReturn(cardResponseDto);
+
+        CardResponseDto result = cardService.getCardByNumber("1234567890123456");
+
+        assertEquals(cardResponseDto, result);
+        verify(cardRepository, never()).findIdByNumber(any());
+    }
+
+    @Test
+    void getCardByNumber_PointerMiss_LoadsIdAndCachesPointer() {
+        when(cardCacheManager.getCardIdByNumber("1234567890123456")).thenReturn(null);
+        when(cardRepository.findIdByNumber("1234567890123456")).thenReturn(Optional.of(1L));
+        when(cardCacheManager.getCard("1")).thenReturn(cardResponseDto);
+
+        CardResponseDto result = cardService.getCardByNumber("1234567890123456");
+
+        assertEquals(cardResponseDto, result);
+        verify(cardCacheManager).fillCardNumber("1234567890123456", "1", 0L, false);
+    }
+
+    @Test
+    void getCardByNumber_StalePointer_EvictsAndReloads() {
+        CardResponseDto renumbered = new CardResponseDto(2L, "1111222233334444", "JOHN DOE", LocalDate.of(2025, 12, 31), 1, 1L);
+        when(cardCacheManager.getCardIdByNumber("1234567890123456")).thenReturn("2");
+        when(cardCacheManager.getCard("2")).thenReturn(renumbered);
+        when(cardRepository.findIdByNumber("1234567890123456")).thenReturn(Optional.of(1L));
+        when(cardCacheManager.getCard("1")).thenReturn(cardResponseDto);
+
+        CardResponseDto result = cardService.getCardByNumber("1234567890123456");
+
+        assertEquals(cardResponseDto, result);
+        verify(cardCacheManager).evictCardNumber("1234567890123456");
+    }
+
+    @Test
+    void getCardByNumber_NotFound_ThrowsException() {
+        when(cardRepository.findIdByNumber("1234567890123456")).thenReturn(Optional.empty());
+
+        assertThrows(CardNotFoundException.class, () -> cardService.getCardByNumber("1234567890123456"));
+        verify(cardCacheManager, never()).fillCardNumber(any(), any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void getCardByNumber_InvalidNumber_ThrowsException() {
+        assertThrows(InvalidInputException.class, () -> cardService.getCardByNumber("1234"));
+        verify(cardRepository, never()).findIdByNumber(any());
+    }
+
+    @Test
+    void getCardsByUserId_CacheHit_Success() {
+        when(cardCacheManager.getCardsByUserId("1")).thenReturn(Optional.of(List.of(cardResponseDto)));
+
+        List<CardResponseDto> result = cardService.getCardsByUserId("1");
+
+        assertEquals(List.of(cardResponseDto), result);
+        verify(cardRepository, never()).findDtosByUserId(anyLong());
     }
 
     @Test
     void getCardsByUserId_NoCards_ThrowsException() {
-        when(cardRepository.findCardsByUserId(1L)).thenReturn(Collections.emptyList());
+        when(cardRepository.findDtosByUserId(1L)).thenReturn(Collections.emptyList());
+
+        assertThrows(CardNotFoundException.class, () -> cardService.getCardsByUserId("1"));
+        verify(cardCacheManager).fillCardsByUserId("1", List.of(), 0L, false);
+    }
+
+    @Test
+    void getCardsByUserId_CachedEmptyList_ThrowsWithoutQuery() {
+        when(cardCacheManager.getCardsByUserId("1")).thenReturn(Optional.of(List.of()));
 
         assertThrows(CardNotFoundException.class, () -> cardService.getCardsByUserId("1"));
+        verify(cardRepository, never()).findDtosByUserId(anyLong());
     }
 
     @Test
@@ -188,23 +408,56 @@ class CardServiceImplTests {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
         when(cardMapper.toEntity(cardRequestDto)).thenReturn(card);
-        when(cardRepository.save(any(Card.class))).thenReturn(card);
+        when(cardRepository.saveAndFlush(any(Card.class))).thenReturn(card);
         when(cardMapper.toDto(card)).thenReturn(cardResponseDto);
 
-        CardResponseDto result = cardService.updateCard("1", "1", cardRequestDto);
+        CardResponseDto result = cardService.updateCard("1", "1", cardRequestDto, null);
 
         assertNotNull(result);
         assertEquals(cardResponseDto, result);
-        verify(cardRepository).save(card);
+        verify(cardRepository).saveAndFlush(card);
         verify(cardCacheManager).cacheCard("1", cardResponseDto);
+        verify(cardCacheManager).evictCardsByUserId("1");
         verify(userCacheManager).evictUser("1", user.getEmail());
     }
 
+    @Test
+    void updateCard_MoveToAnotherUser_EvictsBothUsers() {
+        User newOwner = new User();
+        newOwner.setId(2L);
+        newOwner.setName("JANE");
+        newOwner.setSurname("ROE");
+        newOwner.setEmail("jane.roe@example.com");
+        cardRequestDto.setHolder("JANE ROE");
+
+        when(userRepository.findById(2L)).thenReturn(Optional.of(newOwner));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+        when(cardMapper.toEntity(cardRequestDto)).thenReturn(new Card(null, null, "1234567890123456", "JANE ROE", LocalDate.of(2025, 12, 31), null));
+        when(cardMapper.toDto(card)).thenReturn(cardResponseDto);
+
+        cardService.updateCard("1", "2", cardRequestDto, null);
+
+        verify(cardCacheManager).evictCardsByUserId("2");
+        verify(cardCacheManager).evictCardsByUserId("1");
+        verify(userCacheManager).evictUser("2", newOwner.getEmail());
+        verify(userCacheManager).evictUser("1", null);
+    }
+
+    @Test
+    void updateCard_VersionMismatch_ThrowsPreconditionFailed() {
+        card.setVersion(5L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
+
+        assertThrows(PreconditionFailedException.class, () -> cardService.updateCard("1", "1", cardRequestDto, 4L));
+        verify(cardRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void updateCard_UserNotFound_ThrowsException() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(UserNotFoundException.class, () -> cardService.updateCard("1", "1", cardRequestDto));
+        assertThrows(UserNotFoundException.class, () -> cardService.updateCard("1", "1", cardRequestDto, null));
     }
 
     @Test
@@ -212,7 +465,7 @@ class CardServiceImplTests {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(cardRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(CardNotFoundException.class, () -> cardService.updateCard("1", "1", cardRequestDto));
+        assertThrows(CardNotFoundException.class, () -> cardService.updateCard("1", "1", cardRequestDto, null));
     }
 
     @Test
@@ -220,9 +473,10 @@ class CardServiceImplTests {
         cardRequestDto.setNumber("9876543210987654");
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
-        when(cardRepository.existsByNumber(cardRequestDto.getNumber())).thenReturn(true);
+        when(cardMapper.toEntity(cardRequestDto)).thenReturn(new Card(null, null, "9876543210987654", "JOHN DOE", LocalDate.of(2025, 12, 31), null));
+        when(cardRepository.saveAndFlush(any(Card.class))).thenThrow(new DataIntegrityViolationException("pk_card_number_lookup"));
 
-        assertThrows(IllegalArgumentException.class, () -> cardService.updateCard("1", "1", cardRequestDto));
+        assertThrows(InvalidInputException.class, () -> cardService.updateCard("1", "1", cardRequestDto, null));
     }
 
     @Test
@@ -234,8 +488,8 @@ class CardServiceImplTests {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
 
-        assertThrows(InvalidInputException.class, () -> cardService.updateCard("1", "1", cardRequestDto));
-        verify(cardRepository, never()).save(any());
+        assertThrows(InvalidInputException.class, () -> cardService.updateCard("1", "1", cardRequestDto, null));
+        verify(cardRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -246,6 +500,7 @@ class CardServiceImplTests {
 
         verify(cardRepository).delete(card);
         verify(cardCacheManager).evictCard("1");
+        verify(cardCacheManager).evictCardsByUserId("1");
         verify(userCacheManager).evictUser("1", user.getEmail());
     }
 
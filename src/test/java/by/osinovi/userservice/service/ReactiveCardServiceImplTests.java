@@ -0,0 +1,206 @@
+package by.osinovi.userservice.service;
+
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.dto.card.CardRequestDto;
+import by.osinovi.userservice.dto.card.CardResponseDto;
+import by.osinovi.userservice.exception.CardNotFoundException;
+import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.UserNotFoundException;
+import by.osinovi.userservice.reactive.config.ReactiveCardCacheManager;
+import by.osinovi.userservice.reactive.config.ReactiveUserCacheManager;
+import by.osinovi.userservice.reactive.entity.CardRecord;
+import by.osinovi.userservice.reactive.entity.UserRecord;
+import by.osinovi.userservice.reactive.mapper.CardRecordMapper;
+import by.osinovi.userservice.reactive.repository.ReactiveCardRepository;
+import by.osinovi.userservice.reactive.repository.ReactivePooledIdAllocator;
+import by.osinovi.userservice.reactive.repository.ReactiveUserRepository;
+import by.osinovi.userservice.reactive.service.impl.ReactiveCardServiceImpl;
+import by.osinovi.userservice.repository.PooledIdAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCardServiceImplTests {
+
+    @Mock
+    private ReactiveCardRepository cardRepository;
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private CardRecordMapper cardRecordMapper;
+
+    @Mock
+    private ReactiveCardCacheManager cardCacheManager;
+
+    @Mock
+    private ReactiveUserCacheManager userCacheManager;
+
+    @Mock
+    private ReactivePooledIdAllocator idAllocator;
+
+    @Mock
+    private IdExistenceFilter idExistenceFilter;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveCardServiceImpl cardService;
+
+    private CardRequestDto cardRequestDto;
+    private CardRecord cardRecord;
+    private CardResponseDto cardResponseDto;
+    private UserRecord userRecord;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        LocalDate expirationDate = LocalDate.of(2030, 12, 31);
+        cardRequestDto = new CardRequestDto("1234567812345678", "JOHN DOE", expirationDate);
+        cardRecord = new CardRecord(1L, 1L, "1234567812345678", "JOHN DOE", expirationDate, 0L);
+        cardResponseDto = new CardResponseDto(1L, "1234567812345678", "JOHN DOE", expirationDate, 1, 0L);
+        userRecord = new UserRecord(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com", 0L);
+
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(idAllocator.next(PooledIdAllocator.CARD_SEQUENCE)).thenReturn(Mono.just(1L));
+        lenient().when(cardCacheManager.clearMissing(any())).thenReturn(Mono.empty());
+        lenient().when(cardCacheManager.cacheCard(any(), any())).thenReturn(Mono.empty());
+        lenient().when(cardCacheManager.evictCard(any())).thenReturn(Mono.empty());
+        lenient().when(cardCacheManager.evictCardsByUserId(any())).thenReturn(Mono.empty());
+        lenient().when(cardCacheManager.fillTicket()).thenReturn(Mono.just(0L));
+        lenient().when(cardCacheManager.fillCard(any(), any(), anyLong())).thenReturn(Mono.empty());
+        lenient().when(cardCacheManager.fillCardsByUserId(any(), any(), anyLong())).thenReturn(Mono.empty());
+        lenient().when(cardCacheManager.fillCardNumber(any(), any(), anyLong())).thenReturn(Mono.empty());
+        lenient().when(cardCacheManager.evictCardNumber(any())).thenReturn(Mono.empty());
+        lenient().when(userCacheManager.evictUser(any(), any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void createCard_Success() {
+        when(cardRepository.insertForOwner(1L, 1L, "1234567812345678", "JOHN DOE", cardRequestDto.getExpirationDate()))
+                .thenReturn(Mono.just(1L));
+
+        StepVerifier.create(cardService.createCard("1", cardRequestDto))
+                .expectNextMatches(card -> card.getId().equals(1L) && card.getUserId().equals(1))
+                .verifyComplete();
+        verify(cardCacheManager).evictCardsByUserId("1");
+        verify(userCacheManager).evictUser("1", null);
+        verify(cardCacheManager).clearMissing("1");
+        verify(idExistenceFilter).addCard(1L);
+    }
+
+    @Test
+    void createCard_UserNotFound() {
+        when(cardRepository.insertForOwner(any(), any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(userRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(cardService.createCard("1", cardRequestDto))
+                .expectError(UserNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void createCard_HolderMismatch() {
+        CardRequestDto mismatched = new CardRequestDto("1234567812345678", "JANE DOE", cardRequestDto.getExpirationDate());
+        when(cardRepository.insertForOwner(any(), any(), any(), any(), any())).thenReturn(Mono.empty());
+        when(userRepository.findById(1L)).thenReturn(Mono.just(userRecord));
+
+        StepVerifier.create(cardService.createCard("1", mismatched))
+                .expectErrorMatches(e -> e instanceof InvalidInputException
+                        && e.getMessage().equals("Holder must match the user's full name: John Doe"))
+                .verify();
+    }
+
+    @Test
+    void createCard_DuplicateNumber() {
+        when(cardRepository.insertForOwner(any(), any(), any(), any(), any()))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate")));
+
+        StepVerifier.create(cardService.createCard("1", cardRequestDto))
+                .expectErrorMatches(e -> e instanceof InvalidInputException
+                        && e.getMessage().equals("Card with number 1234567812345678 already exists"))
+                .verify();
+        verify(userRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    void getCardById_CacheMiss() {
+        when(cardCacheManager.getCard("1")).thenReturn(Mono.empty());
+        when(cardRepository.findById(1L)).thenReturn(Mono.just(cardRecord));
+        when(cardRecordMapper.toDto(cardRecord)).thenReturn(cardResponseDto);
+
+        StepVerifier.create(cardService.getCardById("1"))
+                .expectNext(cardResponseDto)
+                .verifyComplete();
+        verify(cardCacheManager).fillCard("1", cardResponseDto, 0L);
+    }
+
+    @Test
+    void getCardsByUserId_Empty() {
+        when(cardCacheManager.getCardsByUserId("1")).thenReturn(Mono.empty());
+        when(cardRepository.findByUserIdOrderById(1L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(cardService.getCardsByUserId("1"))
+                .expectErrorMatches(e -> e instanceof CardNotFoundException
+                        && e.getMessage().equals("No cards found for userId 1"))
+                .verify();
+        verify(cardCacheManager).fillCardsByUserId("1", List.of(), 0L);
+    }
+
+    @Test
+    void getCardByNumber_StalePointer() {
+        CardResponseDto other = new CardResponseDto(2L, "8765432187654321", "JOHN DOE",
+                cardRequestDto.getExpirationDate(), 1, 0L);
+        when(cardCacheManager.getCardIdByNumber("1234567812345678")).thenReturn(Mono.just("2"));
+        when(cardCacheManager.getCard("2")).thenReturn(Mono.just(other));
+        when(cardRepository.findIdByNumber("1234567812345678")).thenReturn(Mono.just(1L));
+        when(cardCacheManager.getCard("1")).thenReturn(Mono.just(cardResponseDto));
+
+        StepVerifier.create(cardService.getCardByNumber("1234567812345678"))
+                .expectNext(cardResponseDto)
+                .verifyComplete();
+        verify(cardCacheManager).evictCardNumber("1234567812345678");
+        verify(cardCacheManager).fillCardNumber("1234567812345678", "1", 0L);
+    }
+
+    @Test
+    void getCardByNumber_InvalidNumber() {
+        StepVerifier.create(cardService.getCardByNumber("12ab"))
+                .expectError(InvalidInputException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteCard_Success() {
+        when(cardRepository.findById(1L)).thenReturn(Mono.just(cardRecord));
+        when(cardRepository.delete(cardRecord)).thenReturn(Mono.empty());
+
+        StepVerifier.create(cardService.deleteCard("1"))
+                .verifyComplete();
+        verify(cardCacheManager).evictCard("1");
+        verify(cardCacheManager).evictCardNumber("1234567812345678");
+        verify(userCacheManager).evictUser("1", null);
+    }
+}
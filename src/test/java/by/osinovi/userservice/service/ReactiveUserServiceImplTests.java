@@ -0,0 +1,214 @@
+package by.osinovi.userservice.service;
+
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.dto.user.UserRequestDto;
+import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.UserNotFoundException;
+import by.osinovi.userservice.mapper.UserMapper;
+import by.osinovi.userservice.reactive.config.ReactiveCardCacheManager;
+import by.osinovi.userservice.reactive.config.ReactiveUserCacheManager;
+import by.osinovi.userservice.reactive.entity.CardRecord;
+import by.osinovi.userservice.reactive.entity.UserRecord;
+import by.osinovi.userservice.reactive.mapper.UserRecordMapper;
+import by.osinovi.userservice.reactive.repository.ReactiveCardRepository;
+import by.osinovi.userservice.reactive.repository.ReactivePooledIdAllocator;
+import by.osinovi.userservice.reactive.repository.ReactiveUserRepository;
+import by.osinovi.userservice.reactive.service.impl.ReactiveUserServiceImpl;
+import by.osinovi.userservice.repository.PooledIdAllocator;
+import by.osinovi.userservice.repository.projection.UserCardRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceImplTests {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private UserRecordMapper userRecordMapper;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private ReactiveCardRepository cardRepository;
+
+    @Mock
+    private ReactiveUserCacheManager userCacheManager;
+
+    @Mock
+    private ReactiveCardCacheManager cardCacheManager;
+
+    @Mock
+    private ReactivePooledIdAllocator idAllocator;
+
+    @Mock
+    private IdExistenceFilter idExistenceFilter;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveUserServiceImpl userService;
+
+    private UserRequestDto userRequestDto;
+    private UserRecord userRecord;
+    private UserResponseDto userResponseDto;
+    private UserCardRow userRow;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        LocalDate birthDate = LocalDate.of(1990, 1, 1);
+        userRequestDto = new UserRequestDto("John", "Doe", birthDate, "john.doe@example.com");
+        userRecord = new UserRecord(1L, "John", "Doe", birthDate, "john.doe@example.com", 0L);
+        userResponseDto = new UserResponseDto(1L, "John", "Doe", birthDate, "john.doe@example.com", new ArrayList<>(), 0L);
+        userRow = new UserCardRow(1L, "John", "Doe", birthDate, "john.doe@example.com", null, null, null, null, 0L, null);
+
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(idAllocator.next(PooledIdAllocator.USER_SEQUENCE)).thenReturn(Mono.just(1L));
+        lenient().when(userCacheManager.clearMissing(any(), any())).thenReturn(Mono.empty());
+        lenient().when(userCacheManager.cacheUser(any(), any(), any())).thenReturn(Mono.empty());
+        lenient().when(userCacheManager.evictUser(any(), any())).thenReturn(Mono.empty());
+        lenient().when(userCacheManager.evictUserBody(any())).thenReturn(Mono.empty());
+        lenient().when(userCacheManager.fillTicket()).thenReturn(Mono.just(0L));
+        lenient().when(userCacheManager.fillUser(any(), any(), any(), anyLong())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    void createUser_Success() {
+        when(userRecordMapper.toRecord(userRequestDto)).thenReturn(userRecord);
+        when(userRepository.save(userRecord)).thenReturn(Mono.just(userRecord));
+        when(userRecordMapper.toDto(userRecord)).thenReturn(userResponseDto);
+
+        StepVerifier.create(userService.createUser(userRequestDto))
+                .expectNext(userResponseDto)
+                .verifyComplete();
+        verify(userCacheManager).cacheUser("1", "john.doe@example.com", userResponseDto);
+        verify(userCacheManager).clearMissing("1", "john.doe@example.com");
+        verify(idExistenceFilter).addUser(1L);
+    }
+
+    @Test
+    void createUser_EmailExists() {
+        when(userRecordMapper.toRecord(userRequestDto)).thenReturn(userRecord);
+        when(userRepository.save(userRecord)).thenReturn(Mono.error(new DataIntegrityViolationException("duplicate")));
+
+        StepVerifier.create(userService.createUser(userRequestDto))
+                .expectErrorMatches(e -> e instanceof InvalidInputException
+                        && e.getMessage().equals("Email john.doe@example.com already exists"))
+                .verify();
+        verify(userCacheManager, never()).cacheUser(any(), any(), any());
+    }
+
+    @Test
+    void getUserById_CacheHit() {
+        when(userCacheManager.getUserById("1")).thenReturn(Mono.just(userResponseDto));
+
+        StepVerifier.create(userService.getUserById("1"))
+                .expectNext(userResponseDto)
+                .verifyComplete();
+        verify(userRepository, never()).findRowsById(any());
+    }
+
+    @Test
+    void getUserById_CacheMiss() {
+        when(userCacheManager.getUserById("1")).thenReturn(Mono.empty());
+        when(userRepository.findRowsById(1L)).thenReturn(Flux.just(userRow));
+        when(userMapper.toDtos(List.of(userRow))).thenReturn(List.of(userResponseDto));
+
+        StepVerifier.create(userService.getUserById("1"))
+                .expectNext(userResponseDto)
+                .verifyComplete();
+        verify(userCacheManager).fillUser("1", "john.doe@example.com", userResponseDto, 0L);
+    }
+
+    @Test
+    void getUserById_NotFound() {
+        when(userCacheManager.getUserById("1")).thenReturn(Mono.empty());
+        when(userRepository.findRowsById(1L)).thenReturn(Flux.empty());
+        when(userMapper.toDtos(anyList())).thenReturn(List.of());
+
+        StepVerifier.create(userService.getUserById("1"))
+                .expectErrorMatches(e -> e instanceof UserNotFoundException
+                        && e.getMessage().equals("User with id 1 not found"))
+                .verify();
+    }
+
+    @Test
+    void getUsers_InvalidSize() {
+        StepVerifier.create(userService.getUsers(null, 0))
+                .expectError(InvalidInputException.class)
+                .verify();
+    }
+
+    @Test
+    void updateUser_EmailChanged_EvictsOldEmail() {
+        UserRequestDto changed = new UserRequestDto("John", "Doe", userRequestDto.getBirthDate(), "new@example.com");
+        UserResponseDto updated = new UserResponseDto(1L, "John", "Doe", userRequestDto.getBirthDate(),
+                "new@example.com", new ArrayList<>(), 1L);
+        when(userRepository.findById(1L)).thenReturn(Mono.just(userRecord));
+        when(userRepository.save(userRecord)).thenReturn(Mono.just(userRecord));
+        when(userRepository.findRowsById(1L)).thenReturn(Flux.just(userRow));
+        when(userMapper.toDtos(List.of(userRow))).thenReturn(List.of(updated));
+
+        StepVerifier.create(userService.updateUser("1", changed, null))
+                .expectNext(updated)
+                .verifyComplete();
+        verify(userCacheManager).evictUser(isNull(), eq("john.doe@example.com"));
+        verify(userCacheManager).clearMissing(null, "new@example.com");
+        verify(userCacheManager).cacheUser("1", "new@example.com", updated);
+        verify(userCacheManager).evictUserBody("1");
+    }
+
+    @Test
+    void deleteUser_NotFound() {
+        when(userRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.deleteUser("1"))
+                .expectError(UserNotFoundException.class)
+                .verify();
+        verify(userRepository, never()).delete(any(UserRecord.class));
+    }
+
+    @Test
+    void deleteUser_Success() {
+        CardRecord card = new CardRecord(7L, 1L, "1234567812345678", "JOHN DOE", LocalDate.of(2030, 12, 31), 0L);
+        when(userRepository.findById(1L)).thenReturn(Mono.just(userRecord));
+        when(cardRepository.findByUserIdOrderById(1L)).thenReturn(Flux.just(card));
+        when(cardCacheManager.evictCardsOfUser(any(), any())).thenReturn(Mono.empty());
+        when(userRepository.delete(userRecord)).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.deleteUser("1"))
+                .verifyComplete();
+        verify(userCacheManager).evictUser("1", "john.doe@example.com");
+        verify(cardCacheManager).evictCardsOfUser("1", Map.of("7", "1234567812345678"));
+    }
+}
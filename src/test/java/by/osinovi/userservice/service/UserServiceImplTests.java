@@ -1,28 +1,46 @@
 package by.osinovi.userservice.service;
 
+import by.osinovi.userservice.dto.user.UserPageResponseDto;
 import by.osinovi.userservice.dto.user.UserRequestDto;
 import by.osinovi.userservice.dto.user.UserResponseDto;
+import by.osinovi.userservice.entity.Card;
 import by.osinovi.userservice.entity.User;
+import by.osinovi.userservice.exception.InvalidInputException;
+import by.osinovi.userservice.exception.PreconditionFailedException;
 import by.osinovi.userservice.exception.UserNotFoundException;
 import by.osinovi.userservice.mapper.UserMapper;
 import by.osinovi.userservice.repository.UserRepository;
+import by.osinovi.userservice.repository.projection.UserCardRow;
+import by.osinovi.userservice.config.CacheLoadCoalescer;
+import by.osinovi.userservice.config.CacheWriteBehind;
+import by.osinovi.userservice.config.CardCacheManager;
+import by.osinovi.userservice.config.IdExistenceFilter;
+import by.osinovi.userservice.config.LocalCacheLoadCoalescer;
 import by.osinovi.userservice.config.UserCacheManager;
+import by.osinovi.userservice.config.datasource.ReadYourWritesTracker;
 import by.osinovi.userservice.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -42,12 +60,28 @@ class UserServiceImplTests {
     @Mock
     private UserCacheManager userCacheManager;
 
+    @Mock
+    private CardCacheManager cardCacheManager;
+
+    @Mock
+    private IdExistenceFilter idExistenceFilter;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Spy
+    private CacheLoadCoalescer loadCoalescer = new LocalCacheLoadCoalescer(Duration.ofSeconds(5));
+
+    @Spy
+    private CacheWriteBehind cacheWriteBehind = new CacheWriteBehind(false, 1, 1);
+
     @InjectMocks
     private UserServiceImpl userService;
 
     private User user;
     private UserRequestDto userRequestDto;
     private UserResponseDto userResponseDto;
+    private List<UserCardRow> userRows;
 
     @BeforeEach
     void setUp() {
@@ -70,22 +104,34 @@ class UserServiceImplTests {
         userResponseDto.setSurname("Doe");
         userResponseDto.setEmail("john.doe@example.com");
         userResponseDto.setBirthDate(LocalDate.of(1990, 1, 1));
+
+        userRows = List.of(new UserCardRow(1L, "John", "Doe", LocalDate.of(1990, 1, 1), "john.doe@example.com",
+                null, null, null, null, 0L, null));
     }
 
     @Test
     void createUser_Success() {
         when(userMapper.toEntity(userRequestDto)).thenReturn(user);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userResponseDto);
 
         UserResponseDto result = userService.createUser(userRequestDto);
 
         assertNotNull(result);
         assertEquals(userResponseDto, result);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
         verify(userCacheManager).cacheUser("1", user.getEmail(), userResponseDto);
     }
 
+    @Test
+    void createUser_EmailExists_ThrowsException() {
+        when(userMapper.toEntity(userRequestDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("users_email_key"));
+
+        assertThrows(InvalidInputException.class, () -> userService.createUser(userRequestDto));
+        verify(userCacheManager, never()).cacheUser(anyString(), any(), any());
+    }
+
     @Test
     void getUserById_CacheHit_Success() {
         when(userCacheManager.getUserById("1")).thenReturn(userResponseDto);
@@ -94,28 +140,61 @@ class UserServiceImplTests {
 
         assertNotNull(result);
         assertEquals(userResponseDto, result);
-        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findRowsById(anyLong());
+        verify(idExistenceFilter, never()).isDefinitelyAbsentUser(anyLong());
     }
 
     @Test
     void getUserById_CacheMiss_Success() {
         when(userCacheManager.getUserById("1")).thenReturn(null);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userMapper.toDto(user)).thenReturn(userResponseDto);
+        when(userRepository.findRowsById(1L)).thenReturn(userRows);
+        when(userMapper.toDtos(userRows)).thenReturn(List.of(userResponseDto));
 
         UserResponseDto result = userService.getUserById("1");
 
         assertNotNull(result);
         assertEquals(userResponseDto, result);
-        verify(userCacheManager).cacheUser("1", user.getEmail(), userResponseDto);
+        verify(userCacheManager).fillUser("1", user.getEmail(), userResponseDto, 0L, false);
     }
 
     @Test
     void getUserById_NotFound_ThrowsException() {
         when(userCacheManager.getUserById("1")).thenReturn(null);
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findRowsById(1L)).thenReturn(Collections.emptyList());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById("1"));
+        verify(userCacheManager).markUserIdMissing("1", 0L, false);
+    }
+
+    @Test
+    void getUserById_ReadFromReplica_FillsAsReplicaRead() {
+        when(userCacheManager.getUserById("1")).thenReturn(null);
+        when(userRepository.findRowsById(1L)).thenReturn(userRows);
+        when(userMapper.toDtos(userRows)).thenReturn(List.of(userResponseDto));
+        when(readYourWritesTracker.readFromReplica()).thenReturn(true);
+
+        userService.getUserById("1");
+
+        verify(userCacheManager).fillUser("1", user.getEmail(), userResponseDto, 0L, true);
+    }
+
+    @Test
+    void getUserById_NegativeCacheHit_SkipsDatabase() {
+        when(userCacheManager.getUserById("1")).thenReturn(null);
+        when(userCacheManager.isUserIdMissing("1")).thenReturn(true);
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById("1"));
+        verify(userRepository, never()).findRowsById(anyLong());
+    }
+
+    @Test
+    void getUserById_AbsentFromExistenceFilter_SkipsNegativeCacheAndDatabase() {
+        when(userCacheManager.getUserById("1")).thenReturn(null);
+        when(idExistenceFilter.isDefinitelyAbsentUser(1L)).thenReturn(true);
 
         assertThrows(UserNotFoundException.class, () -> userService.getUserById("1"));
+        verify(userCacheManager, never()).isUserIdMissing(anyString());
+        verify(userRepository, never()).findRowsById(anyLong());
     }
 
     @Test
@@ -126,34 +205,35 @@ class UserServiceImplTests {
 
         assertNotNull(result);
         assertEquals(userResponseDto, result);
-        verify(userRepository, never()).findUserByEmail(anyString());
+        verify(userRepository, never()).findRowsByEmail(anyString());
     }
 
     @Test
     void getUserByEmail_CacheMiss_Success() {
         when(userCacheManager.getUserByEmail("john.doe@example.com")).thenReturn(null);
-        when(userRepository.findUserByEmail("john.doe@example.com")).thenReturn(Optional.of(user));
-        when(userMapper.toDto(user)).thenReturn(userResponseDto);
+        when(userRepository.findRowsByEmail("john.doe@example.com")).thenReturn(userRows);
+        when(userMapper.toDtos(userRows)).thenReturn(List.of(userResponseDto));
 
         UserResponseDto result = userService.getUserByEmail("john.doe@example.com");
 
         assertNotNull(result);
         assertEquals(userResponseDto, result);
-        verify(userCacheManager).cacheUser("1", user.getEmail(), userResponseDto);
+        verify(userCacheManager).fillUser("1", user.getEmail(), userResponseDto, 0L, false);
     }
 
     @Test
     void getUserByEmail_NotFound_ThrowsException() {
         when(userCacheManager.getUserByEmail("john.doe@example.com")).thenReturn(null);
-        when(userRepository.findUserByEmail("john.doe@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findRowsByEmail("john.doe@example.com")).thenReturn(Collections.emptyList());
 
         assertThrows(UserNotFoundException.class, () -> userService.getUserByEmail("john.doe@example.com"));
+        verify(userCacheManager).markUserEmailMissing("john.doe@example.com", 0L, false);
     }
 
     @Test
     void getUsersByIds_Success() {
-        when(userRepository.findUserByIdIn(List.of(1L))).thenReturn(List.of(user));
-        when(userMapper.toDto(user)).thenReturn(userResponseDto);
+        when(userRepository.findRowsByIdIn(List.of(1L))).thenReturn(userRows);
+        when(userMapper.toDtos(userRows)).thenReturn(List.of(userResponseDto));
 
         List<UserResponseDto> result = userService.getUsersByIds(List.of("1"));
 
@@ -162,27 +242,85 @@ class UserServiceImplTests {
         assertEquals(userResponseDto, result.get(0));
     }
 
+    @Test
+    void getUsersByIds_PartialCacheHit_LoadsOnlyMissesInRequestOrder() {
+        List<UserCardRow> secondUserRows = List.of(new UserCardRow(2L, "Jane", "Doe", null, "jane.doe@example.com",
+                null, null, null, null, 0L, null));
+
+        UserResponseDto secondResponseDto = new UserResponseDto();
+        secondResponseDto.setId(2L);
+        secondResponseDto.setEmail("jane.doe@example.com");
+
+        when(userCacheManager.getUsersByIds(List.of("2", "1"))).thenReturn(Map.of("1", userResponseDto));
+        when(userRepository.findRowsByIdIn(List.of(2L))).thenReturn(secondUserRows);
+        when(userMapper.toDtos(secondUserRows)).thenReturn(List.of(secondResponseDto));
+
+        List<UserResponseDto> result = userService.getUsersByIds(List.of("2", "1", "2"));
+
+        assertEquals(List.of(secondResponseDto, userResponseDto), result);
+        verify(userCacheManager).fillUsers(List.of(secondResponseDto), 0L, false);
+    }
+
+    @Test
+    void getUsersByIds_AllCached_SkipsDatabase() {
+        when(userCacheManager.getUsersByIds(List.of("1"))).thenReturn(Map.of("1", userResponseDto));
+
+        List<UserResponseDto> result = userService.getUsersByIds(List.of("1"));
+
+        assertEquals(List.of(userResponseDto), result);
+        verify(userRepository, never()).findRowsByIdIn(any());
+    }
+
     @Test
     void getUsersByIds_NoUsers_ThrowsException() {
-        when(userRepository.findUserByIdIn(List.of(1L))).thenReturn(Collections.emptyList());
+        when(userRepository.findRowsByIdIn(List.of(1L))).thenReturn(Collections.emptyList());
 
         assertThrows(UserNotFoundException.class, () -> userService.getUsersByIds(List.of("1")));
     }
 
+    @Test
+    void getUsers_MorePagesAvailable_ReturnsNextCursor() {
+        when(userRepository.findIdsAfter(0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+        when(userCacheManager.getUsersByIds(List.of("1"))).thenReturn(Map.of("1", userResponseDto));
+
+        UserPageResponseDto result = userService.getUsers(null, 1);
+
+        assertEquals(List.of(userResponseDto), result.getUsers());
+        assertEquals(1L, result.getNextCursor());
+        verify(userRepository, never()).findRowsByIdIn(any());
+    }
+
+    @Test
+    void getUsers_LastPage_ReturnsNoCursor() {
+        when(userRepository.findIdsAfter(1L, Limit.of(21))).thenReturn(Collections.emptyList());
+
+        UserPageResponseDto result = userService.getUsers(1L, 20);
+
+        assertTrue(result.getUsers().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getUsers_InvalidSize_ThrowsException() {
+        assertThrows(InvalidInputException.class, () -> userService.getUsers(null, 0));
+        assertThrows(InvalidInputException.class, () -> userService.getUsers(null, 101));
+    }
+
     @Test
     void updateUser_Success_SameEmail() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(userMapper.toEntity(userRequestDto)).thenReturn(user);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userResponseDto);
 
-        UserResponseDto result = userService.updateUser("1", userRequestDto);
+        UserResponseDto result = userService.updateUser("1", userRequestDto, null);
 
         assertNotNull(result);
         assertEquals(userResponseDto, result);
-        verify(userRepository).save(user);
-        verify(userCacheManager).cacheUser("1", user.getEmail(), userResponseDto);
-        verify(userCacheManager, never()).evictUser(anyString(), anyString());
+        verify(userRepository).saveAndFlush(user);
+        verify(userCacheManager).cacheUser("1", null, userResponseDto);
+        verify(userCacheManager).evictUserBody("1");
+        verify(userCacheManager, never()).evictUser(any(), any());
     }
 
     @Test
@@ -205,36 +343,50 @@ class UserServiceImplTests {
         userRequestDto.setEmail(newEmail);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.findUserByEmail(newEmail)).thenReturn(Optional.empty());
         when(userMapper.toEntity(userRequestDto)).thenReturn(updatedUser);
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(updatedResponseDto);
 
-        UserResponseDto result = userService.updateUser("1", userRequestDto);
+        UserResponseDto result = userService.updateUser("1", userRequestDto, null);
 
         assertNotNull(result);
         assertEquals(updatedResponseDto, result);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
         verify(userCacheManager).cacheUser("1", newEmail, updatedResponseDto);
-        verify(userCacheManager).evictUser("1", "john.doe@example.com");
+        verify(userCacheManager).evictUser(null, "john.doe@example.com");
+    }
+
+    @Test
+    void updateUser_VersionMismatch_ThrowsPreconditionFailed() {
+        user.setVersion(3L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThrows(PreconditionFailedException.class, () -> userService.updateUser("1", userRequestDto, 2L));
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(userCacheManager, never()).cacheUser(any(), any(), any());
     }
 
     @Test
     void updateUser_NotFound_ThrowsException() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(UserNotFoundException.class, () -> userService.updateUser("1", userRequestDto));
-        verify(userRepository, never()).save(any());
+        assertThrows(UserNotFoundException.class, () -> userService.updateUser("1", userRequestDto, null));
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void deleteUser_Success() {
+        Card card = new Card();
+        card.setId(7L);
+        card.setNumber("1234567812345678");
+        user.getCards().add(card);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         userService.deleteUser("1");
 
         verify(userRepository).delete(user);
         verify(userCacheManager).evictUser("1", user.getEmail());
+        verify(cardCacheManager).evictCardsOfUser("1", Map.of("7", "1234567812345678"));
     }
 
     @Test